@@ -30,6 +30,7 @@ import org.slf4j.Marker;
 import ch.qos.logback.classic.spi.LoggerComparator;
 import ch.qos.logback.classic.spi.LoggerContextListener;
 import ch.qos.logback.classic.spi.LoggerContextVO;
+import ch.qos.logback.classic.spi.PackagingDataCache;
 import ch.qos.logback.classic.spi.TurboFilterList;
 import ch.qos.logback.classic.turbo.TurboFilter;
 import ch.qos.logback.classic.util.LoggerNameUtil;
@@ -62,6 +63,7 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
     //turboFilterListеTurboFilterTurboFilterһֿٹǷ¼־һƱͨһƱȨ;
     private final TurboFilterList turboFilterList = new TurboFilterList();
     private boolean packagingDataEnabled = DEFAULT_PACKAGING_DATA;
+    private final PackagingDataCache packagingDataCache = new PackagingDataCache();
 
     private int maxCallerDataDepth = ClassicConstants.DEFAULT_MAX_CALLEDER_DATA_DEPTH;
     //resetCountͳƸLoggerContextùreset();
@@ -211,6 +213,13 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         return packagingDataEnabled;
     }
 
+    /**
+     * The cache of packaging data shared by all the exceptions logged in this context.
+     */
+    public PackagingDataCache getPackagingDataCache() {
+        return packagingDataCache;
+    }
+
     /**
      * This method clears all internal properties, except internal status messages,
      * closes all appenders, removes any turboFilters, fires an OnReset event,
@@ -226,6 +235,7 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         initEvaluatorMap();
         initCollisionMaps();
         root.recursiveReset();
+        packagingDataCache.clear();
         resetTurboFilterList();
         cancelScheduledTasks();
         fireOnReset();
@@ -281,7 +291,7 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         if (turboFilterList.size() == 0) {
             return FilterReply.NEUTRAL;
         }
-        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, new Object[] { param }, t);
+        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, param, t);
     }
 
     final FilterReply getTurboFilterChainDecision_2(final Marker marker, final Logger logger, final Level level, final String format, final Object param1,
@@ -289,7 +299,7 @@ public class LoggerContext extends ContextBase implements ILoggerFactory, LifeCy
         if (turboFilterList.size() == 0) {
             return FilterReply.NEUTRAL;
         }
-        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, new Object[] { param1, param2 }, t);
+        return turboFilterList.getTurboFilterChainDecision(marker, logger, level, format, param1, param2, t);
     }
 
     // === start listeners ==============================================
@@ -126,6 +126,21 @@ public class PatternLayout extends PatternLayoutBase<ILoggingEvent> {
 
     }
 
+    /**
+     * Whether a subclass overrides {@link #doLayout(ILoggingEvent)}, in which
+     * case {@link #doLayout(ILoggingEvent, StringBuilder)} must go through it.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_DO_LAYOUT = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("doLayout", ILoggingEvent.class).getDeclaringClass() != PatternLayout.class;
+            } catch (NoSuchMethodException e) {
+                return Boolean.TRUE;
+            }
+        }
+    };
+
     public PatternLayout() {
         this.postCompileProcessor = new EnsureExceptionHandling();
     }
@@ -141,6 +156,18 @@ public class PatternLayout extends PatternLayoutBase<ILoggingEvent> {
         return writeLoopOnConverters(event);
     }
 
+    @Override
+    public void doLayout(ILoggingEvent event, StringBuilder buf) {
+        if (!isStarted()) {
+            return;
+        }
+        if (OVERRIDES_DO_LAYOUT.get(getClass())) {
+            buf.append(doLayout(event));
+            return;
+        }
+        writeLoopOnConverters(buf, event);
+    }
+
     @Override
     protected String getPresentationHeaderPrefix() {
         return HEADER_PREFIX;
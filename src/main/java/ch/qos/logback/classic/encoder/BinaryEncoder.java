@@ -0,0 +1,317 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.encoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+/**
+ * Writes events in a compact binary format meant to be read back by
+ * {@link BinaryEventInputStream}, for instance to be transcoded into text
+ * offline.
+ * 
+ * <p>
+ * Each record is prefixed by its length as a varint. A header record, written
+ * whenever a new stream is started, describes the logger context. Event
+ * records hold the timestamp as a varint delta from the previous event, the
+ * raw message pattern along with its arguments converted to strings, the MDC,
+ * the marker, the throwable and the caller data if present. Logger names,
+ * thread names, levels, message patterns and class names are interned: a
+ * string is written in full the first time it is seen in a stream and
+ * referred to by its index afterwards.
+ */
+public class BinaryEncoder extends EncoderBase<ILoggingEvent> {
+
+    public static final int MAGIC = 0x4C424531;
+    public static final int VERSION = 1;
+
+    static final int HEADER_RECORD = 0;
+    static final int EVENT_RECORD = 1;
+
+    static final int HAS_ARGUMENTS = 1;
+    static final int HAS_MARKER = 2;
+    static final int HAS_MDC = 4;
+    static final int HAS_THROWABLE = 8;
+    static final int HAS_CALLER_DATA = 16;
+
+    // how strings are written
+    static final int NULL_STRING = 0;
+    static final int LITERAL_STRING = 1;
+    static final int NEW_ENTRY = 2;
+    static final int FIRST_ENTRY_REFERENCE = 3;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public static final int DEFAULT_MAX_DICTIONARY_SIZE = 16384;
+
+    private int maxDictionarySize = DEFAULT_MAX_DICTIONARY_SIZE;
+    private boolean immediateFlush = true;
+
+    private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(1024);
+    private final byte[] lengthPrefix = new byte[10];
+    private long lastTimeStamp;
+
+    @Override
+    public void init(OutputStream os) throws IOException {
+        super.init(os);
+        dictionary.clear();
+        lastTimeStamp = 0;
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+        record.reset();
+        record.write(HEADER_RECORD);
+        writeInt(MAGIC);
+        writeVarint(VERSION);
+        if (context == null) {
+            writeString(null, false);
+            writeVarint(0);
+            writeVarint(0);
+        } else {
+            writeString(context.getName(), false);
+            writeVarint(context.getBirthTime());
+            writeStringMap(context.getCopyOfPropertyMap(), false);
+        }
+        writeRecord();
+    }
+
+    public void doEncode(ILoggingEvent event) throws IOException {
+        record.reset();
+        record.write(EVENT_RECORD);
+
+        Object[] argumentArray = event.getArgumentArray();
+        Marker marker = event.getMarker();
+        Map<String, String> mdc = event.getMDCPropertyMap();
+        IThrowableProxy throwableProxy = event.getThrowableProxy();
+        boolean hasCallerData = event.hasCallerData();
+        int flags = 0;
+        if (argumentArray != null) {
+            flags |= HAS_ARGUMENTS;
+        }
+        if (marker != null) {
+            flags |= HAS_MARKER;
+        }
+        if (mdc != null && !mdc.isEmpty()) {
+            flags |= HAS_MDC;
+        }
+        if (throwableProxy != null) {
+            flags |= HAS_THROWABLE;
+        }
+        if (hasCallerData) {
+            flags |= HAS_CALLER_DATA;
+        }
+        record.write(flags);
+
+        long timeStamp = event.getTimeStamp();
+        writeSignedVarint(timeStamp - lastTimeStamp);
+        lastTimeStamp = timeStamp;
+        writeString(event.getLevel().levelStr, true);
+        writeString(event.getLoggerName(), true);
+        writeString(event.getThreadName(), true);
+        writeString(event.getMessage(), true);
+
+        if (argumentArray != null) {
+            writeVarint(argumentArray.length);
+            for (Object argument : argumentArray) {
+                writeString(argument == null ? null : argument.toString(), false);
+            }
+        }
+        if (marker != null) {
+            writeMarker(marker);
+        }
+        if (mdc != null && !mdc.isEmpty()) {
+            writeStringMap(mdc, true);
+        }
+        if (throwableProxy != null) {
+            writeThrowableProxy(throwableProxy);
+        }
+        if (hasCallerData) {
+            writeStackTraceElements(event.getCallerData());
+        }
+        writeRecord();
+        if (immediateFlush) {
+            outputStream.flush();
+        }
+    }
+
+    private void writeRecord() throws IOException {
+        int length = record.size();
+        int i = 0;
+        while ((length & ~0x7F) != 0) {
+            lengthPrefix[i++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        lengthPrefix[i++] = (byte) length;
+        outputStream.write(lengthPrefix, 0, i);
+        record.writeTo(outputStream);
+    }
+
+    private void writeMarker(Marker marker) {
+        writeString(marker.getName(), true);
+        int referenceCount = 0;
+        for (Iterator<Marker> it = marker.iterator(); it.hasNext(); it.next()) {
+            referenceCount++;
+        }
+        writeVarint(referenceCount);
+        for (Iterator<Marker> it = marker.iterator(); it.hasNext();) {
+            writeMarker(it.next());
+        }
+    }
+
+    private void writeThrowableProxy(IThrowableProxy tp) {
+        writeString(tp.getClassName(), true);
+        writeString(tp.getMessage(), false);
+        writeVarint(tp.getCommonFrames());
+        StackTraceElementProxy[] stepArray = tp.getStackTraceElementProxyArray();
+        writeVarint(stepArray.length);
+        for (StackTraceElementProxy step : stepArray) {
+            writeStackTraceElement(step.getStackTraceElement());
+        }
+        IThrowableProxy cause = tp.getCause();
+        record.write(cause == null ? 0 : 1);
+        if (cause != null) {
+            writeThrowableProxy(cause);
+        }
+        IThrowableProxy[] suppressed = tp.getSuppressed();
+        if (suppressed == null) {
+            writeVarint(0);
+        } else {
+            writeVarint(suppressed.length);
+            for (IThrowableProxy s : suppressed) {
+                writeThrowableProxy(s);
+            }
+        }
+    }
+
+    private void writeStackTraceElements(StackTraceElement[] steArray) {
+        writeVarint(steArray.length);
+        for (StackTraceElement ste : steArray) {
+            writeStackTraceElement(ste);
+        }
+    }
+
+    private void writeStackTraceElement(StackTraceElement ste) {
+        writeString(ste.getClassName(), true);
+        writeString(ste.getMethodName(), true);
+        writeString(ste.getFileName(), true);
+        writeSignedVarint(ste.getLineNumber());
+    }
+
+    private void writeStringMap(Map<String, String> map, boolean internKeys) {
+        writeVarint(map.size());
+        for (Entry<String, String> entry : map.entrySet()) {
+            writeString(entry.getKey(), internKeys);
+            writeString(entry.getValue(), false);
+        }
+    }
+
+    /**
+     * Write a string, either in full or as a reference to an identical string
+     * written earlier in the stream if it is interned. Strings are interned as
+     * long as the dictionary is not full.
+     */
+    private void writeString(String s, boolean intern) {
+        if (s == null) {
+            record.write(NULL_STRING);
+            return;
+        }
+        if (intern) {
+            Integer index = dictionary.get(s);
+            if (index != null) {
+                writeVarint(FIRST_ENTRY_REFERENCE + index);
+                return;
+            }
+            if (dictionary.size() < maxDictionarySize) {
+                dictionary.put(s, dictionary.size());
+                record.write(NEW_ENTRY);
+                writeUTF8(s);
+                return;
+            }
+        }
+        record.write(LITERAL_STRING);
+        writeUTF8(s);
+    }
+
+    private void writeUTF8(String s) {
+        byte[] bytes = s.getBytes(UTF_8);
+        writeVarint(bytes.length);
+        record.write(bytes, 0, bytes.length);
+    }
+
+    private void writeInt(int i) {
+        record.write(i >>> 24);
+        record.write(i >>> 16);
+        record.write(i >>> 8);
+        record.write(i);
+    }
+
+    private void writeVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            record.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        record.write((int) value);
+    }
+
+    private void writeSignedVarint(long value) {
+        // zig-zag encoding, so that small negative values remain short
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void close() throws IOException {
+        outputStream.flush();
+    }
+
+    public boolean isImmediateFlush() {
+        return immediateFlush;
+    }
+
+    /**
+     * Whether to flush the stream after each event. Default is true.
+     * 
+     * @param immediateFlush
+     */
+    public void setImmediateFlush(boolean immediateFlush) {
+        this.immediateFlush = immediateFlush;
+    }
+
+    public int getMaxDictionarySize() {
+        return maxDictionarySize;
+    }
+
+    /**
+     * The maximum number of distinct strings interned per stream, beyond which
+     * strings are written in full. Default is 16384.
+     * 
+     * @param maxDictionarySize
+     */
+    public void setMaxDictionarySize(int maxDictionarySize) {
+        this.maxDictionarySize = maxDictionarySize;
+    }
+}
@@ -0,0 +1,452 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.encoder;
+
+import static ch.qos.logback.classic.encoder.BinaryEncoder.EVENT_RECORD;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.FIRST_ENTRY_REFERENCE;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.HAS_ARGUMENTS;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.HAS_CALLER_DATA;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.HAS_MARKER;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.HAS_MDC;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.HAS_THROWABLE;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.HEADER_RECORD;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.LITERAL_STRING;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.MAGIC;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.NEW_ENTRY;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.NULL_STRING;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.UTF_8;
+import static ch.qos.logback.classic.encoder.BinaryEncoder.VERSION;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.LoggerContextVO;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
+
+/**
+ * Decodes the records written by {@link BinaryEncoder}, without the length
+ * prefix, one at a time and in the order they were written. Strings interned
+ * by the encoder are remembered across records. This class is not
+ * thread-safe.
+ * 
+ * <p>Records may come from untrusted peers. The number and total length of
+ * the strings remembered, as well as the nesting of markers and throwables,
+ * are bounded, and any inconsistency is reported as an {@link IOException}.
+ */
+public class BinaryEventDecoder {
+
+    /**
+     * The maximum nesting depth of markers and of throwables, through their
+     * cause and suppressed throwables.
+     */
+    static final int MAX_NESTING_DEPTH = 100;
+
+    /**
+     * The default maximum total length, in bytes, of the strings remembered.
+     */
+    public static final long DEFAULT_MAX_DICTIONARY_BYTES = 16 * 1024 * 1024;
+
+    private final List<String> dictionary = new ArrayList<String>();
+    private int maxDictionarySize = BinaryEncoder.DEFAULT_MAX_DICTIONARY_SIZE;
+    private long maxDictionaryBytes = DEFAULT_MAX_DICTIONARY_BYTES;
+    private long dictionaryBytes;
+    private LoggerContextVO loggerContextVO;
+    private long lastTimeStamp;
+
+    // the record being decoded
+    private byte[] record;
+    private int position;
+    private int limit;
+
+    /**
+     * Decode the record held in the given bytes.
+     * 
+     * @return the event, or null if the record does not describe an event
+     * @throws IOException if the record is corrupt
+     */
+    public ILoggingEvent decode(byte[] buf, int offset, int length) throws IOException {
+        this.record = buf;
+        this.position = offset;
+        this.limit = offset + length;
+        try {
+            int type = readByte();
+            switch (type) {
+            case HEADER_RECORD:
+                readHeader();
+                return null;
+            case EVENT_RECORD:
+                if (loggerContextVO == null) {
+                    throw new IOException("Event record found before any header record");
+                }
+                return readEventRecord();
+            default:
+                // written by a later version, skip it
+                return null;
+            }
+        } catch (RuntimeException e) {
+            // e.g. a null class name in a stack trace element
+            throw new IOException("Corrupt record", e);
+        } finally {
+            this.record = null;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (readInt() != MAGIC) {
+            throw new IOException("Not a stream written by BinaryEncoder");
+        }
+        long version = readVarint();
+        if (version > VERSION) {
+            throw new IOException("Unsupported version " + version);
+        }
+        dictionary.clear();
+        dictionaryBytes = 0;
+        lastTimeStamp = 0;
+        String contextName = readString();
+        long birthTime = readVarint();
+        Map<String, String> propertyMap = readStringMap();
+        loggerContextVO = new LoggerContextVO(contextName, propertyMap, birthTime);
+    }
+
+    private ILoggingEvent readEventRecord() throws IOException {
+        BinaryLoggingEvent event = new BinaryLoggingEvent();
+        int flags = readByte();
+        lastTimeStamp += readSignedVarint();
+        event.timeStamp = lastTimeStamp;
+        event.level = Level.toLevel(readString());
+        event.loggerName = readString();
+        event.threadName = readString();
+        event.message = readString();
+        event.loggerContextVO = loggerContextVO;
+        if ((flags & HAS_ARGUMENTS) != 0) {
+            Object[] argumentArray = new Object[readLength()];
+            for (int i = 0; i < argumentArray.length; i++) {
+                argumentArray[i] = readString();
+            }
+            event.argumentArray = argumentArray;
+        }
+        if ((flags & HAS_MARKER) != 0) {
+            event.marker = readMarker(0);
+        }
+        if ((flags & HAS_MDC) != 0) {
+            event.mdcPropertyMap = readStringMap();
+        } else {
+            event.mdcPropertyMap = Collections.emptyMap();
+        }
+        if ((flags & HAS_THROWABLE) != 0) {
+            event.throwableProxy = readThrowableProxy(0);
+        }
+        if ((flags & HAS_CALLER_DATA) != 0) {
+            StackTraceElement[] callerData = new StackTraceElement[readLength()];
+            for (int i = 0; i < callerData.length; i++) {
+                callerData[i] = readStackTraceElement();
+            }
+            event.callerData = callerData;
+        }
+        return event;
+    }
+
+    private Marker readMarker(int depth) throws IOException {
+        checkDepth(depth);
+        Marker marker = MarkerFactory.getDetachedMarker(readString());
+        int referenceCount = readLength();
+        for (int i = 0; i < referenceCount; i++) {
+            marker.add(readMarker(depth + 1));
+        }
+        return marker;
+    }
+
+    private IThrowableProxy readThrowableProxy(int depth) throws IOException {
+        checkDepth(depth);
+        BinaryThrowableProxy tp = new BinaryThrowableProxy();
+        tp.className = readString();
+        tp.message = readString();
+        tp.commonFrames = (int) readVarint();
+        StackTraceElementProxy[] stepArray = new StackTraceElementProxy[readLength()];
+        for (int i = 0; i < stepArray.length; i++) {
+            stepArray[i] = new StackTraceElementProxy(readStackTraceElement());
+        }
+        tp.stackTraceElementProxyArray = stepArray;
+        if (readByte() != 0) {
+            tp.cause = readThrowableProxy(depth + 1);
+        }
+        IThrowableProxy[] suppressed = new IThrowableProxy[readLength()];
+        for (int i = 0; i < suppressed.length; i++) {
+            suppressed[i] = readThrowableProxy(depth + 1);
+        }
+        tp.suppressed = suppressed;
+        return tp;
+    }
+
+    private void checkDepth(int depth) throws IOException {
+        if (depth >= MAX_NESTING_DEPTH) {
+            throw new IOException("Nesting deeper than " + MAX_NESTING_DEPTH);
+        }
+    }
+
+    private StackTraceElement readStackTraceElement() throws IOException {
+        String className = readString();
+        String methodName = readString();
+        String fileName = readString();
+        int lineNumber = (int) readSignedVarint();
+        return new StackTraceElement(className, methodName, fileName, lineNumber);
+    }
+
+    private Map<String, String> readStringMap() throws IOException {
+        int size = readLength();
+        Map<String, String> map = new HashMap<String, String>(Math.max(16, 2 * size));
+        for (int i = 0; i < size; i++) {
+            String key = readString();
+            map.put(key, readString());
+        }
+        return map;
+    }
+
+    private String readString() throws IOException {
+        long tag = readVarint();
+        if (tag == NULL_STRING) {
+            return null;
+        }
+        if (tag == LITERAL_STRING) {
+            return readUTF8();
+        }
+        if (tag == NEW_ENTRY) {
+            int start = position;
+            String s = readUTF8();
+            if (dictionary.size() >= maxDictionarySize) {
+                throw new IOException("More than " + maxDictionarySize + " strings to remember");
+            }
+            dictionaryBytes += position - start;
+            if (dictionaryBytes > maxDictionaryBytes) {
+                throw new IOException("More than " + maxDictionaryBytes + " bytes of strings to remember");
+            }
+            dictionary.add(s);
+            return s;
+        }
+        long index = tag - FIRST_ENTRY_REFERENCE;
+        if (index >= dictionary.size()) {
+            throw new IOException("Reference to unknown string " + index);
+        }
+        return dictionary.get((int) index);
+    }
+
+    private String readUTF8() throws IOException {
+        int len = readLength();
+        if (len > limit - position) {
+            throw new EOFException("Truncated string");
+        }
+        String s = new String(record, position, len, UTF_8);
+        position += len;
+        return s;
+    }
+
+    private int readByte() throws IOException {
+        if (position >= limit) {
+            throw new EOFException("Truncated record");
+        }
+        return record[position++] & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+        return (readByte() << 24) | (readByte() << 16) | (readByte() << 8) | readByte();
+    }
+
+    private long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt varint");
+    }
+
+    private long readSignedVarint() throws IOException {
+        long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Read a count, which cannot exceed the bytes left in the record.
+     */
+    private int readLength() throws IOException {
+        long len = readVarint();
+        if (len > limit - position) {
+            throw new IOException("Corrupt length " + len);
+        }
+        return (int) len;
+    }
+
+    public int getMaxDictionarySize() {
+        return maxDictionarySize;
+    }
+
+    /**
+     * The maximum number of distinct strings remembered per stream. It must be
+     * at least the <b>maxDictionarySize</b> of the encoder which wrote the
+     * stream. Default is 16384.
+     * 
+     * @param maxDictionarySize
+     */
+    public void setMaxDictionarySize(int maxDictionarySize) {
+        this.maxDictionarySize = maxDictionarySize;
+    }
+
+    public long getMaxDictionaryBytes() {
+        return maxDictionaryBytes;
+    }
+
+    /**
+     * The maximum total length, in bytes, of the strings remembered. Streams
+     * exceeding it are rejected. Default is 16MB.
+     * 
+     * @param maxDictionaryBytes
+     */
+    public void setMaxDictionaryBytes(long maxDictionaryBytes) {
+        this.maxDictionaryBytes = maxDictionaryBytes;
+    }
+
+    static final class BinaryLoggingEvent implements ILoggingEvent {
+        String threadName;
+        String loggerName;
+        LoggerContextVO loggerContextVO;
+        Level level;
+        String message;
+        String formattedMessage;
+        Object[] argumentArray;
+        IThrowableProxy throwableProxy;
+        StackTraceElement[] callerData;
+        Marker marker;
+        Map<String, String> mdcPropertyMap;
+        long timeStamp;
+
+        public String getThreadName() {
+            return threadName;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public Object[] getArgumentArray() {
+            return argumentArray;
+        }
+
+        public String getFormattedMessage() {
+            if (formattedMessage != null) {
+                return formattedMessage;
+            }
+            if (argumentArray != null) {
+                formattedMessage = MessageFormatter.arrayFormat(message, argumentArray).getMessage();
+            } else {
+                formattedMessage = message;
+            }
+            return formattedMessage;
+        }
+
+        public String getLoggerName() {
+            return loggerName;
+        }
+
+        public LoggerContextVO getLoggerContextVO() {
+            return loggerContextVO;
+        }
+
+        public IThrowableProxy getThrowableProxy() {
+            return throwableProxy;
+        }
+
+        public StackTraceElement[] getCallerData() {
+            return callerData;
+        }
+
+        public boolean hasCallerData() {
+            return callerData != null;
+        }
+
+        public Marker getMarker() {
+            return marker;
+        }
+
+        public Map<String, String> getMDCPropertyMap() {
+            return mdcPropertyMap;
+        }
+
+        /**
+         * @deprecated Replaced by {@link #getMDCPropertyMap()}
+         */
+        @Deprecated
+        public Map<String, String> getMdc() {
+            return mdcPropertyMap;
+        }
+
+        public long getTimeStamp() {
+            return timeStamp;
+        }
+
+        public void prepareForDeferredProcessing() {
+        }
+    }
+
+    static final class BinaryThrowableProxy implements IThrowableProxy {
+        String className;
+        String message;
+        int commonFrames;
+        StackTraceElementProxy[] stackTraceElementProxyArray;
+        IThrowableProxy cause;
+        IThrowableProxy[] suppressed;
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public StackTraceElementProxy[] getStackTraceElementProxyArray() {
+            return stackTraceElementProxyArray;
+        }
+
+        public int getCommonFrames() {
+            return commonFrames;
+        }
+
+        public IThrowableProxy getCause() {
+            return cause;
+        }
+
+        public IThrowableProxy[] getSuppressed() {
+            return suppressed;
+        }
+    }
+}
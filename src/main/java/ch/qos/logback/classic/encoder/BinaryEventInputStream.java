@@ -0,0 +1,136 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.encoder;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Reads back the events written by {@link BinaryEncoder}, one at a time.
+ */
+public class BinaryEventInputStream extends InputStream {
+
+    final InputStream in;
+    final BinaryEventDecoder decoder = new BinaryEventDecoder();
+
+    // the record being read
+    private byte[] record = new byte[1024];
+
+    public BinaryEventInputStream(InputStream is) {
+        this.in = new BufferedInputStream(is);
+    }
+
+    @Override
+    public int read() throws IOException {
+        throw new UnsupportedOperationException("Only the readEvent method is supported.");
+    }
+
+    /**
+     * Returns the number of bytes available
+     */
+    public int available() throws IOException {
+        return in.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Read the next event.
+     * 
+     * @return the event, or null at the end of the stream
+     * @throws IOException if the stream cannot be read or is corrupt
+     */
+    public ILoggingEvent readEvent() throws IOException {
+        int length;
+        while ((length = readRecord()) != -1) {
+            ILoggingEvent event = decoder.decode(record, 0, length);
+            if (event != null) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read all the remaining events, passing each of them to the appenders of
+     * the logger of the same name in the given context, provided that logger is
+     * enabled for the event's level.
+     * 
+     * @return the number of events read
+     */
+    public int replay(LoggerContext lc) throws IOException {
+        int count = 0;
+        ILoggingEvent event;
+        while ((event = readEvent()) != null) {
+            count++;
+            Logger logger = lc.getLogger(event.getLoggerName());
+            if (logger.isEnabledFor(event.getLevel())) {
+                logger.callAppenders(event);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Read the next record into the record buffer.
+     * 
+     * @return the length of the record, or -1 at the end of the stream
+     */
+    private int readRecord() throws IOException {
+        long length = 0;
+        int shift = 0;
+        while (true) {
+            int b = in.read();
+            if (b == -1) {
+                if (shift == 0) {
+                    return -1;
+                }
+                throw new EOFException("Truncated record length");
+            }
+            length |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+            if (shift > 28) {
+                throw new IOException("Corrupt record length");
+            }
+        }
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt record length " + length);
+        }
+        int len = (int) length;
+        if (record.length < len) {
+            record = new byte[Math.max(len, 2 * record.length)];
+        }
+        int read = 0;
+        while (read < len) {
+            int n = in.read(record, read, len - read);
+            if (n == -1) {
+                throw new EOFException("Truncated record");
+            }
+            read += n;
+        }
+        return len;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.jmx;
+
+import ch.qos.logback.core.AsyncAppenderBase;
+import ch.qos.logback.core.spi.AppenderMetrics;
+
+/**
+ * Exposes the {@link AppenderMetrics} of an appender as an MBean. Instances are
+ * registered and unregistered by {@link JMXConfigurator} as appenders with
+ * metrics enabled are started and stopped.
+ */
+public class AppenderMonitor implements AppenderMonitorMBean {
+
+    static final double PERCENTILE = 99.0;
+
+    final AppenderMetrics metrics;
+
+    public AppenderMonitor(AppenderMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public String getAppenderName() {
+        return metrics.getAppender().getName();
+    }
+
+    public long getAppendedEventCount() {
+        return metrics.getAppendedEvents().sum();
+    }
+
+    public long getDiscardedEventCount() {
+        return metrics.getDiscardedEvents().sum();
+    }
+
+    public long getBytesWritten() {
+        return metrics.getBytesWritten().sum();
+    }
+
+    public int getQueueDepth() {
+        if (metrics.getAppender() instanceof AsyncAppenderBase) {
+            return ((AsyncAppenderBase<?>) metrics.getAppender()).getNumberOfElementsInQueue();
+        }
+        return -1;
+    }
+
+    public long getMeanAppendTime() {
+        return metrics.getAppendTime().getMean();
+    }
+
+    public long get99thPercentileAppendTime() {
+        return metrics.getAppendTime().getPercentile(PERCENTILE);
+    }
+
+    public long getMaxAppendTime() {
+        return metrics.getAppendTime().getMax();
+    }
+
+    public long getMeanLockWaitTime() {
+        return metrics.getLockWaitTime().getMean();
+    }
+
+    public long get99thPercentileLockWaitTime() {
+        return metrics.getLockWaitTime().getPercentile(PERCENTILE);
+    }
+
+    public long getMaxLockWaitTime() {
+        return metrics.getLockWaitTime().getMax();
+    }
+
+    public long getMeanWriteTime() {
+        return metrics.getWriteTime().getMean();
+    }
+
+    public long get99thPercentileWriteTime() {
+        return metrics.getWriteTime().getPercentile(PERCENTILE);
+    }
+
+    public long getMaxWriteTime() {
+        return metrics.getWriteTime().getMax();
+    }
+
+    public void reset() {
+        metrics.reset();
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getName() + "(" + getAppenderName() + ")";
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.jmx;
+
+/**
+ * Statistics of an appender whose <b>metricsEnabled</b> property is set. Times
+ * are expressed in nanoseconds. Percentiles are approximated to the nearest
+ * power of two above them.
+ */
+public interface AppenderMonitorMBean {
+
+    String getAppenderName();
+
+    /**
+     * Number of events which passed the appender's filter chain, including
+     * events later discarded by an asynchronous appender.
+     */
+    long getAppendedEventCount();
+
+    long getDiscardedEventCount();
+
+    long getBytesWritten();
+
+    /**
+     * Number of events waiting in the queue of an asynchronous appender, -1 for
+     * other appenders.
+     */
+    int getQueueDepth();
+
+    long getMeanAppendTime();
+
+    long get99thPercentileAppendTime();
+
+    long getMaxAppendTime();
+
+    long getMeanLockWaitTime();
+
+    long get99thPercentileLockWaitTime();
+
+    long getMaxLockWaitTime();
+
+    /**
+     * Time spent encoding events and writing them to the underlying stream,
+     * excluding the time spent waiting for the lock.
+     */
+    long getMeanWriteTime();
+
+    long get99thPercentileWriteTime();
+
+    long getMaxWriteTime();
+
+    void reset();
+}
@@ -33,6 +33,9 @@ import ch.qos.logback.classic.joran.JoranConfigurator;
 import ch.qos.logback.classic.spi.LoggerContextListener;
 import ch.qos.logback.classic.util.ContextInitializer;
 import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.spi.AppenderMetrics;
+import ch.qos.logback.core.spi.AppenderMetricsListener;
+import ch.qos.logback.core.spi.AppenderMetricsRegistry;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.status.Status;
 import ch.qos.logback.core.status.StatusListener;
@@ -51,7 +54,7 @@ import ch.qos.logback.core.util.StatusPrinter;
  * 
  * Contributor: Sebastian Davids See http://bugzilla.qos.ch/show_bug.cgi?id=35
  */
-public class JMXConfigurator extends ContextAwareBase implements JMXConfiguratorMBean, LoggerContextListener {
+public class JMXConfigurator extends ContextAwareBase implements JMXConfiguratorMBean, LoggerContextListener, AppenderMetricsListener {
 
     private static String EMPTY = "";
 
@@ -59,6 +62,7 @@ public class JMXConfigurator extends ContextAwareBase implements JMXConfigurator
     MBeanServer mbs;
     ObjectName objectName;
     String objectNameAsString;
+    AppenderMetricsRegistry appenderMetricsRegistry;
 
     // whether to output status events on the console when reloading the
     // configuration
@@ -78,6 +82,53 @@ public class JMXConfigurator extends ContextAwareBase implements JMXConfigurator
         } else {
             // register as a listener only if there are no homonyms
             loggerContext.addListener(this);
+            listenToAppenderMetrics();
+        }
+    }
+
+    /**
+     * Appenders with metrics enabled are exposed as {@link AppenderMonitor}
+     * mbeans for as long as they are started.
+     */
+    private void listenToAppenderMetrics() {
+        appenderMetricsRegistry = AppenderMetricsRegistry.getRegistry(loggerContext);
+        appenderMetricsRegistry.addListener(this);
+    }
+
+    private void stopListeningToAppenderMetrics() {
+        if (appenderMetricsRegistry != null) {
+            appenderMetricsRegistry.removeListener(this);
+            appenderMetricsRegistry = null;
+        }
+    }
+
+    private ObjectName objectNameFor(AppenderMetrics metrics) {
+        String name = MBeanUtil.getObjectNameForAppender(loggerContext.getName(), metrics.getAppender().getName());
+        return MBeanUtil.string2ObjectName(context, this, name);
+    }
+
+    public void onRegister(AppenderMetrics metrics) {
+        if (!started) {
+            return;
+        }
+        ObjectName appenderObjectName = objectNameFor(metrics);
+        if (appenderObjectName == null || MBeanUtil.isRegistered(mbs, appenderObjectName)) {
+            return;
+        }
+        try {
+            mbs.registerMBean(new AppenderMonitor(metrics), appenderObjectName);
+        } catch (Exception e) {
+            addError("Failed to register mbean [" + appenderObjectName + "]", e);
+        }
+    }
+
+    public void onUnregister(AppenderMetrics metrics) {
+        if (!started) {
+            return;
+        }
+        ObjectName appenderObjectName = objectNameFor(metrics);
+        if (appenderObjectName != null) {
+            MBeanUtil.unregister(loggerContext, mbs, appenderObjectName, this);
         }
     }
 
@@ -260,6 +311,11 @@ public class JMXConfigurator extends ContextAwareBase implements JMXConfigurator
 
     public void onReset(LoggerContext context) {
         addInfo("onReset() method called JMXActivator [" + objectNameAsString + "]");
+        // the registry is discarded along with the context's object map
+        stopListeningToAppenderMetrics();
+        if (started) {
+            listenToAppenderMetrics();
+        }
     }
 
     /**
@@ -278,6 +334,7 @@ public class JMXConfigurator extends ContextAwareBase implements JMXConfigurator
     }
 
     private void stop() {
+        stopListeningToAppenderMetrics();
         started = false;
         clearFields();
     }
@@ -31,6 +31,10 @@ public class MBeanUtil {
         return DOMAIN + ":Name=" + contextName + ",Type=" + type.getName();
     }
 
+    static public String getObjectNameForAppender(String contextName, String appenderName) {
+        return getObjectNameFor(contextName, AppenderMonitor.class) + ",Appender=" + ObjectName.quote(String.valueOf(appenderName));
+    }
+
     public static ObjectName string2ObjectName(Context context, Object caller, String objectNameAsStr) {
         String msg = "Failed to convert [" + objectNameAsStr + "] to ObjectName";
 
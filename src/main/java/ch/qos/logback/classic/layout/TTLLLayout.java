@@ -37,10 +37,18 @@ public class TTLLLayout extends LayoutBase<ILoggingEvent> {
             return CoreConstants.EMPTY_STRING;
         }
         StringBuilder sb = new StringBuilder();
+        doLayout(event, sb);
+        return sb.toString();
+    }
 
+    @Override
+    public void doLayout(ILoggingEvent event, StringBuilder sb) {
+        if (!isStarted()) {
+            return;
+        }
         long timestamp = event.getTimeStamp();
 
-        sb.append(cachingDateFormatter.format(timestamp));
+        cachingDateFormatter.format(timestamp, sb);
         sb.append(" [");
         sb.append(event.getThreadName());
         sb.append("] ");
@@ -55,7 +63,6 @@ public class TTLLLayout extends LayoutBase<ILoggingEvent> {
             String stackTrace = tpc.convert(event);
             sb.append(stackTrace);
         }
-        return sb.toString();
     }
 
 }
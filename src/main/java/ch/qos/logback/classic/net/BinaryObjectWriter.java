@@ -0,0 +1,50 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.net;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import ch.qos.logback.classic.encoder.BinaryEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.net.ObjectWriter;
+
+/**
+ * Writes logging events in the format of {@link BinaryEncoder}, flushing the
+ * stream after each event.
+ */
+public class BinaryObjectWriter implements ObjectWriter {
+
+    private final BinaryEncoder encoder = new BinaryEncoder();
+
+    /**
+     * Creates a new instance, writing the stream header right away.
+     *
+     * @param outputStream the stream to write to
+     * @param context the context described by the stream header
+     * @throws IOException if an I/O error occurs while writing the stream header
+     */
+    public BinaryObjectWriter(OutputStream outputStream, Context context) throws IOException {
+        encoder.setContext(context);
+        encoder.start();
+        encoder.init(new BufferedOutputStream(outputStream));
+    }
+
+    @Override
+    public void write(Object object) throws IOException {
+        encoder.doEncode((ILoggingEvent) object);
+    }
+}
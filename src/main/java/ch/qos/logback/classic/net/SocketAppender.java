@@ -14,10 +14,13 @@
 // Contributors: Dan MacDonald <dan@redknee.com>
 package ch.qos.logback.classic.net;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetAddress;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.net.AbstractSocketAppender;
+import ch.qos.logback.core.net.ObjectWriter;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
 
 /**
@@ -36,10 +39,22 @@ public class SocketAppender extends AbstractSocketAppender<ILoggingEvent> {
     private static final PreSerializationTransformer<ILoggingEvent> pst = new LoggingEventPreSerializationTransformer();
 
     private boolean includeCallerData = false;
+    private boolean binaryFormat = false;
 
     public SocketAppender() {
     }
 
+    @Override
+    public void start() {
+        if (isStarted())
+            return;
+        if (binaryFormat && getBatchSize() > 0) {
+            addError("The binaryFormat option cannot be combined with batchSize for appender [" + name + "]");
+            return;
+        }
+        super.start();
+    }
+
     @Override
     protected void postProcessEvent(ILoggingEvent event) {
         if (includeCallerData) {
@@ -51,6 +66,31 @@ public class SocketAppender extends AbstractSocketAppender<ILoggingEvent> {
         this.includeCallerData = includeCallerData;
     }
 
+    @Override
+    protected ObjectWriter createObjectWriter(OutputStream outputStream) throws IOException {
+        if (binaryFormat) {
+            return new BinaryObjectWriter(outputStream, getContext());
+        }
+        return super.createObjectWriter(outputStream);
+    }
+
+    public boolean isBinaryFormat() {
+        return binaryFormat;
+    }
+
+    /**
+     * When true, events are sent in the compact format of
+     * {@link ch.qos.logback.classic.encoder.BinaryEncoder} instead of being
+     * serialized, as expected by
+     * {@link ch.qos.logback.classic.net.server.NioSocketReceiver}. Default is
+     * false. Cannot be combined with the <b>batchSize</b> option.
+     * 
+     * @param binaryFormat
+     */
+    public void setBinaryFormat(boolean binaryFormat) {
+        this.binaryFormat = binaryFormat;
+    }
+
     public PreSerializationTransformer<ILoggingEvent> getPST() {
         return pst;
     }
@@ -23,6 +23,8 @@ import ch.qos.logback.classic.Logger;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.net.EventBatchReader;
+import ch.qos.logback.core.util.CloseUtil;
 
 // Contributors: Moses Hohman <mmhohman@rainbow.uchicago.edu>
 
@@ -45,6 +47,7 @@ public class SocketNode implements Runnable {
     Socket socket;
     LoggerContext context;
     ObjectInputStream ois;
+    EventBatchReader batchReader;
     SocketAddress remoteSocketAddress;
 
     Logger logger;
@@ -68,26 +71,28 @@ public class SocketNode implements Runnable {
     public void run() {
 
         try {
-            ois = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            BufferedInputStream in = new BufferedInputStream(socket.getInputStream());
+            if (EventBatchReader.isBatchStream(in)) {
+                batchReader = new EventBatchReader(in, socket.getOutputStream());
+            } else {
+                ois = new ObjectInputStream(in);
+            }
         } catch (Exception e) {
             logger.error("Could not open ObjectInputStream to " + socket, e);
             closed = true;
         }
 
-        ILoggingEvent event;
-        Logger remoteLogger;
-
         try {
             while (!closed) {
-                // read an event from the wire
-                event = (ILoggingEvent) ois.readObject();
-                // get a logger from the hierarchy. The name of the logger is taken to
-                // be the name contained in the event.
-                remoteLogger = context.getLogger(event.getLoggerName());
-                // apply the logger-level filter
-                if (remoteLogger.isEnabledFor(event.getLevel())) {
-                    // finally log the event as if was generated locally
-                    remoteLogger.callAppenders(event);
+                if (batchReader != null) {
+                    // read a batch of events from the wire
+                    for (Object event : batchReader.readBatch()) {
+                        handle((ILoggingEvent) event);
+                    }
+                    batchReader.acknowledge();
+                } else {
+                    // read an event from the wire
+                    handle((ILoggingEvent) ois.readObject());
                 }
             }
         } catch (java.io.EOFException e) {
@@ -105,6 +110,17 @@ public class SocketNode implements Runnable {
         close();
     }
 
+    private void handle(ILoggingEvent event) {
+        // get a logger from the hierarchy. The name of the logger is taken to
+        // be the name contained in the event.
+        Logger remoteLogger = context.getLogger(event.getLoggerName());
+        // apply the logger-level filter
+        if (remoteLogger.isEnabledFor(event.getLevel())) {
+            // finally log the event as if was generated locally
+            remoteLogger.callAppenders(event);
+        }
+    }
+
     void close() {
         if (closed) {
             return;
@@ -119,6 +135,9 @@ public class SocketNode implements Runnable {
                 ois = null;
             }
         }
+        if (batchReader != null) {
+            CloseUtil.closeQuietly(socket);
+        }
     }
 
     @Override
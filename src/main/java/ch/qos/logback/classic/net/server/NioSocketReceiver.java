@@ -0,0 +1,566 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.net.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.BinaryEncoder;
+import ch.qos.logback.classic.encoder.BinaryEventDecoder;
+import ch.qos.logback.classic.net.ReceiverBase;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.net.AbstractSocketAppender;
+import ch.qos.logback.core.util.CloseUtil;
+import ch.qos.logback.core.util.FileSize;
+
+/**
+ * A receiver which serves many connections with a small, fixed number of I/O
+ * threads, each multiplexing its connections with a {@link Selector}.
+ * 
+ * <p>
+ * Senders must be {@link ch.qos.logback.classic.net.SocketAppender}s with the
+ * <b>binaryFormat</b> option set, as serialized events cannot be decoded
+ * without blocking. Records are decoded as they arrive into per-connection
+ * buffers and handed over in batches to a single thread, which passes them to
+ * the loggers of the receiver's context.
+ * 
+ * <p>
+ * When more than <b>queueSize</b> batches are waiting to be handed to the
+ * loggers, connections are no longer read from until the backlog is processed,
+ * which in turn slows down the senders through TCP flow control.
+ */
+public class NioSocketReceiver extends ReceiverBase {
+
+    public static final int DEFAULT_BACKLOG = 50;
+    public static final int DEFAULT_IO_THREAD_COUNT = 2;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+    public static final int DEFAULT_QUEUE_SIZE = 64;
+    public static final int DEFAULT_MAX_RECORD_SIZE = 1024 * 1024;
+
+    static final int INITIAL_BUFFER_SIZE = 8192;
+    // how often stalled connections are retried in the absence of a wake up
+    static final long STALL_RETRY_MILLIS = 50;
+
+    private int port = AbstractSocketAppender.DEFAULT_PORT;
+    private int backlog = DEFAULT_BACKLOG;
+    private String address;
+    private int ioThreadCount = DEFAULT_IO_THREAD_COUNT;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private int maxRecordSize = DEFAULT_MAX_RECORD_SIZE;
+    private int maxDictionarySize = BinaryEncoder.DEFAULT_MAX_DICTIONARY_SIZE;
+    private FileSize maxDictionaryBytes = new FileSize(BinaryEventDecoder.DEFAULT_MAX_DICTIONARY_BYTES);
+
+    private ServerSocketChannel serverChannel;
+    private IoWorker[] workers;
+    private BlockingQueue<List<ILoggingEvent>> batches;
+    private volatile boolean running;
+    private int nextWorker;
+
+    protected boolean shouldStart() {
+        if (ioThreadCount < 1 || batchSize < 1 || queueSize < 1) {
+            addError("ioThreadCount, batchSize and queueSize must be positive");
+            return false;
+        }
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.socket().bind(new InetSocketAddress(getInetAddress(), getPort()), getBacklog());
+
+            batches = new ArrayBlockingQueue<List<ILoggingEvent>>(queueSize);
+            running = true;
+            workers = new IoWorker[ioThreadCount];
+            for (int i = 0; i < ioThreadCount; i++) {
+                workers[i] = new IoWorker(Selector.open());
+                workers[i].setDaemon(true);
+                workers[i].setName("NioSocketReceiver-" + getPort() + "-" + i);
+            }
+            // the first worker also accepts connections
+            serverChannel.register(workers[0].selector, SelectionKey.OP_ACCEPT);
+            for (IoWorker worker : workers) {
+                worker.start();
+            }
+            addInfo("Listening on port " + getPort() + " with " + ioThreadCount + " I/O threads");
+            return true;
+        } catch (Exception ex) {
+            addError("server startup error: " + ex, ex);
+            running = false;
+            if (workers != null) {
+                for (IoWorker worker : workers) {
+                    if (worker != null) {
+                        CloseUtil.closeQuietly(worker.selector);
+                    }
+                }
+            }
+            closeServerChannel();
+            return false;
+        }
+    }
+
+    /**
+     * The task run on the context's executor, passing the batches of events
+     * decoded by the I/O threads to the loggers.
+     */
+    @Override
+    protected Runnable getRunnableTask() {
+        return new Runnable() {
+            public void run() {
+                LoggerContext lc = (LoggerContext) getContext();
+                while (running) {
+                    List<ILoggingEvent> batch;
+                    try {
+                        batch = batches.poll(STALL_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                    if (batch == null) {
+                        continue;
+                    }
+                    // room was made in the queue
+                    for (IoWorker worker : workers) {
+                        worker.wakeupIfStalled();
+                    }
+                    for (ILoggingEvent event : batch) {
+                        Logger remoteLogger = lc.getLogger(event.getLoggerName());
+                        if (remoteLogger.isEnabledFor(event.getLevel())) {
+                            remoteLogger.callAppenders(event);
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    protected void onStop() {
+        running = false;
+        closeServerChannel();
+        for (IoWorker worker : workers) {
+            worker.selector.wakeup();
+        }
+        for (IoWorker worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        batches.clear();
+    }
+
+    private void closeServerChannel() {
+        if (serverChannel != null) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                addError("server shutdown error: " + e, e);
+            }
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel;
+        try {
+            channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            addInfo("accept failed: " + e);
+            return;
+        }
+        // only the first worker accepts connections
+        IoWorker worker = workers[nextWorker++ % workers.length];
+        worker.assign(channel);
+    }
+
+    /**
+     * A connection along with its partially decoded input.
+     */
+    final class Connection {
+        final SocketChannel channel;
+        final String id;
+        final BinaryEventDecoder decoder = new BinaryEventDecoder();
+        ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+        List<ILoggingEvent> batch = new ArrayList<ILoggingEvent>(batchSize);
+        SelectionKey key;
+        boolean endOfStream;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+            decoder.setMaxDictionarySize(maxDictionarySize);
+            decoder.setMaxDictionaryBytes(maxDictionaryBytes.getSize());
+            this.id = "client " + channel.socket().getRemoteSocketAddress();
+        }
+
+        /**
+         * Hand over the current batch, unless the queue is full.
+         */
+        boolean offerBatch() {
+            if (batch.isEmpty()) {
+                return true;
+            }
+            if (batches.offer(batch)) {
+                batch = new ArrayList<ILoggingEvent>(batchSize);
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Decode the complete records held in the buffer.
+         * 
+         * @return false if decoding stopped because the queue is full
+         */
+        boolean decode() throws IOException {
+            boolean handedOver = true;
+            buffer.flip();
+            try {
+                while (true) {
+                    int start = buffer.position();
+                    int length = readLength(buffer);
+                    if (length < 0 || buffer.remaining() < length) {
+                        buffer.position(start);
+                        break;
+                    }
+                    int position = buffer.position();
+                    ILoggingEvent event = decoder.decode(buffer.array(), buffer.arrayOffset() + position, length);
+                    buffer.position(position + length);
+                    if (event != null) {
+                        batch.add(event);
+                        if (batch.size() >= batchSize && !offerBatch()) {
+                            handedOver = false;
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                buffer.compact();
+            }
+            if (!buffer.hasRemaining()) {
+                // a partial record fills the buffer
+                ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            return handedOver && offerBatch();
+        }
+
+        /**
+         * @return the length of the next record, or -1 if the length prefix is
+         *         not complete yet
+         */
+        private int readLength(ByteBuffer buf) throws IOException {
+            int length = 0;
+            for (int shift = 0; shift <= 28; shift += 7) {
+                if (!buf.hasRemaining()) {
+                    return -1;
+                }
+                int b = buf.get();
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (length < 0 || length > maxRecordSize) {
+                        throw new IOException("record of " + length + " bytes exceeds maxRecordSize");
+                    }
+                    return length;
+                }
+            }
+            throw new IOException("corrupt record length");
+        }
+
+        void close() {
+            if (key != null) {
+                key.cancel();
+            }
+            CloseUtil.closeQuietly(channel);
+        }
+
+        @Override
+        public String toString() {
+            return id;
+        }
+    }
+
+    /**
+     * Reads from the connections assigned to it, on its own thread.
+     */
+    final class IoWorker extends Thread {
+        final Selector selector;
+        final ConcurrentLinkedQueue<SocketChannel> assigned = new ConcurrentLinkedQueue<SocketChannel>();
+        // only accessed by this worker's thread
+        final List<Connection> stalled = new ArrayList<Connection>();
+        volatile boolean hasStalled;
+
+        IoWorker(Selector selector) {
+            this.selector = selector;
+        }
+
+        void assign(SocketChannel channel) {
+            assigned.add(channel);
+            selector.wakeup();
+        }
+
+        void wakeupIfStalled() {
+            if (hasStalled) {
+                selector.wakeup();
+            }
+        }
+
+        public void run() {
+            try {
+                while (running) {
+                    selector.select(stalled.isEmpty() ? 0 : STALL_RETRY_MILLIS);
+                    registerAssigned();
+                    resumeStalled();
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read((Connection) key.attachment());
+                        }
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                // stopping
+            } catch (IOException e) {
+                addError("I/O thread failure: " + e, e);
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) {
+                        ((Connection) key.attachment()).close();
+                    }
+                }
+                SocketChannel channel;
+                while ((channel = assigned.poll()) != null) {
+                    CloseUtil.closeQuietly(channel.socket());
+                }
+                CloseUtil.closeQuietly(selector);
+            }
+        }
+
+        private void registerAssigned() {
+            SocketChannel channel;
+            while ((channel = assigned.poll()) != null) {
+                Connection connection = new Connection(channel);
+                try {
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                    addInfo(connection + ": connected");
+                } catch (IOException e) {
+                    addInfo(connection + ": " + e);
+                    connection.close();
+                }
+            }
+        }
+
+        private void read(Connection connection) {
+            try {
+                int n = connection.channel.read(connection.buffer);
+                if (n == -1) {
+                    connection.endOfStream = true;
+                }
+                process(connection);
+            } catch (IOException e) {
+                addInfo(connection + ": " + e);
+                connection.close();
+                addInfo(connection + ": connection closed");
+            } catch (RuntimeException e) {
+                closeCorrupt(connection, e);
+            }
+        }
+
+        /**
+         * Close a connection whose input could not be decoded. Peers are not
+         * trusted, a failure must not bring down the other connections of
+         * this worker.
+         */
+        private void closeCorrupt(Connection connection, RuntimeException t) {
+            addWarn(connection + ": failed to decode input, closing the connection", t);
+            connection.close();
+        }
+
+        /**
+         * Decode what was read so far. Stop reading from the connection if the
+         * events cannot be handed over, or close it at the end of the stream.
+         */
+        private void process(Connection connection) throws IOException {
+            if (!connection.decode()) {
+                connection.key.interestOps(0);
+                stalled.add(connection);
+                hasStalled = true;
+            } else if (connection.endOfStream) {
+                connection.close();
+                addInfo(connection + ": connection closed");
+            } else {
+                connection.key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        private void resumeStalled() {
+            if (stalled.isEmpty()) {
+                return;
+            }
+            List<Connection> retry = new ArrayList<Connection>(stalled);
+            stalled.clear();
+            hasStalled = false;
+            for (Connection connection : retry) {
+                if (!connection.offerBatch()) {
+                    stalled.add(connection);
+                    continue;
+                }
+                try {
+                    process(connection);
+                } catch (IOException e) {
+                    addInfo(connection + ": " + e);
+                    connection.close();
+                } catch (RuntimeException e) {
+                    closeCorrupt(connection, e);
+                }
+            }
+            hasStalled = !stalled.isEmpty();
+        }
+    }
+
+    /**
+     * Gets the local address for the listener.
+     * @return an {@link InetAddress} representation of the local address.
+     * @throws UnknownHostException
+     */
+    protected InetAddress getInetAddress() throws UnknownHostException {
+        if (getAddress() == null)
+            return null;
+        return InetAddress.getByName(getAddress());
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    /**
+     * The number of threads reading from the connections. Default is 2.
+     */
+    public void setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The maximum number of events of a connection handed over to the loggers
+     * at once. Default is 256.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * The number of batches which may wait to be handed to the loggers before
+     * connections stop being read from. Default is 64.
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getMaxRecordSize() {
+        return maxRecordSize;
+    }
+
+    /**
+     * Connections sending larger records are closed. Default is 1MB.
+     */
+    public void setMaxRecordSize(int maxRecordSize) {
+        this.maxRecordSize = maxRecordSize;
+    }
+
+    public int getMaxDictionarySize() {
+        return maxDictionarySize;
+    }
+
+    /**
+     * The maximum number of distinct strings remembered per connection. It must
+     * be at least the <b>maxDictionarySize</b> of the sending encoders,
+     * connections exceeding it are closed. Default is 16384.
+     */
+    public void setMaxDictionarySize(int maxDictionarySize) {
+        this.maxDictionarySize = maxDictionarySize;
+    }
+
+    public FileSize getMaxDictionaryBytes() {
+        return maxDictionaryBytes;
+    }
+
+    /**
+     * The maximum total length of the strings remembered per connection.
+     * Connections exceeding it are closed. As each connection has its own
+     * dictionary, the receiver may retain up to this amount of memory times
+     * the number of open connections. Default is 16MB.
+     */
+    public void setMaxDictionaryBytes(FileSize maxDictionaryBytes) {
+        this.maxDictionaryBytes = maxDictionaryBytes;
+    }
+}
@@ -13,20 +13,26 @@
  */
 package ch.qos.logback.classic.net.server;
 
+import java.io.BufferedInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.io.OutputStream;
 import java.net.Socket;
 
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.net.EventBatchReader;
 import ch.qos.logback.core.util.CloseUtil;
 
 /**
  * A {@link RemoteAppenderClient} that reads serialized {@link ILoggingEvent} 
  * objects from an {@link InputStream}.
+ * <p>
+ * Streams written in batches by an appender whose <b>batchSize</b> is set are
+ * recognized and each batch is acknowledged once its events have been logged.
  *
  * @author Carl Harris
  */
@@ -87,20 +93,23 @@ class RemoteAppenderStreamClient implements RemoteAppenderClient {
      */
     public void run() {
         logger.info(this + ": connected");
-        ObjectInputStream ois = null;
+        InputStream in = null;
         try {
-            ois = createObjectInputStream();
+            in = new BufferedInputStream(getInputStream());
+            if (EventBatchReader.isBatchStream(in)) {
+                EventBatchReader batchReader = new EventBatchReader(in, getOutputStream());
+                while (true) {
+                    // read a batch of events from the wire
+                    for (Object event : batchReader.readBatch()) {
+                        handle((ILoggingEvent) event);
+                    }
+                    batchReader.acknowledge();
+                }
+            }
+            ObjectInputStream ois = new ObjectInputStream(in);
             while (true) {
                 // read an event from the wire
-                ILoggingEvent event = (ILoggingEvent) ois.readObject();
-                // get a logger from the hierarchy. The name of the logger is taken to
-                // be the name contained in the event.
-                Logger remoteLogger = lc.getLogger(event.getLoggerName());
-                // apply the logger-level filter
-                if (remoteLogger.isEnabledFor(event.getLevel())) {
-                    // finally log the event as if was generated locally
-                    remoteLogger.callAppenders(event);
-                }
+                handle((ILoggingEvent) ois.readObject());
             }
         } catch (EOFException ex) {
             // this is normal and expected
@@ -112,19 +121,37 @@ class RemoteAppenderStreamClient implements RemoteAppenderClient {
         } catch (RuntimeException ex) {
             logger.error(this + ": " + ex);
         } finally {
-            if (ois != null) {
-                CloseUtil.closeQuietly(ois);
+            if (in != null) {
+                CloseUtil.closeQuietly(in);
             }
             close();
             logger.info(this + ": connection closed");
         }
     }
 
-    private ObjectInputStream createObjectInputStream() throws IOException {
+    private void handle(ILoggingEvent event) {
+        // get a logger from the hierarchy. The name of the logger is taken to
+        // be the name contained in the event.
+        Logger remoteLogger = lc.getLogger(event.getLoggerName());
+        // apply the logger-level filter
+        if (remoteLogger.isEnabledFor(event.getLevel())) {
+            // finally log the event as if was generated locally
+            remoteLogger.callAppenders(event);
+        }
+    }
+
+    private InputStream getInputStream() throws IOException {
         if (inputStream != null) {
-            return new ObjectInputStream(inputStream);
+            return inputStream;
+        }
+        return socket.getInputStream();
+    }
+
+    private OutputStream getOutputStream() throws IOException {
+        if (socket == null) {
+            return null;
         }
-        return new ObjectInputStream(socket.getInputStream());
+        return socket.getOutputStream();
     }
 
     /**
@@ -0,0 +1,55 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.pattern;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link Abbreviator} remembering the abbreviations computed by another
+ * abbreviator. Since an application only has a limited number of distinct
+ * logger names, most names are abbreviated only once.
+ * 
+ * <p>The cache is bounded. Should the number of distinct names exceed
+ * <code>maxSize</code>, the cache is cleared and filled again.
+ */
+public class CachingAbbreviator implements Abbreviator {
+
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    final Abbreviator delegate;
+    final int maxSize;
+    final ConcurrentMap<String, String> cache = new ConcurrentHashMap<String, String>();
+
+    public CachingAbbreviator(Abbreviator delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    public CachingAbbreviator(Abbreviator delegate, int maxSize) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+    }
+
+    public String abbreviate(String in) {
+        String abbreviation = cache.get(in);
+        if (abbreviation == null) {
+            abbreviation = delegate.abbreviate(in);
+            if (cache.size() >= maxSize) {
+                cache.clear();
+            }
+            cache.put(in, abbreviation);
+        }
+        return abbreviation;
+    }
+}
@@ -24,6 +24,7 @@ import ch.qos.logback.core.Context;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.boolex.EvaluationException;
 import ch.qos.logback.core.boolex.EventEvaluator;
+import ch.qos.logback.core.pattern.AppendableConverter;
 import ch.qos.logback.core.status.ErrorStatus;
 
 /**
@@ -31,7 +32,7 @@ import ch.qos.logback.core.status.ErrorStatus;
  * 
  * @author Ceki Gulcu
  */
-public class CallerDataConverter extends ClassicConverter {
+public class CallerDataConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     public static final String DEFAULT_CALLER_LINE_PREFIX = "Caller+";
 
@@ -111,6 +112,11 @@ public class CallerDataConverter extends ClassicConverter {
 
     public String convert(ILoggingEvent le) {
         StringBuilder buf = new StringBuilder();
+        appendTo(buf, le);
+        return buf.toString();
+    }
+
+    public void appendTo(StringBuilder buf, ILoggingEvent le) {
 
         if (evaluatorList != null) {
             boolean printCallerData = false;
@@ -136,7 +142,7 @@ public class CallerDataConverter extends ClassicConverter {
             }
 
             if (!printCallerData) {
-                return CoreConstants.EMPTY_STRING;
+                return;
             }
         }
 
@@ -151,9 +157,8 @@ public class CallerDataConverter extends ClassicConverter {
                 buf.append(cda[i]);
                 buf.append(CoreConstants.LINE_SEPARATOR);
             }
-            return buf.toString();
         } else {
-            return CallerData.CALLER_DATA_NA;
+            buf.append(CallerData.CALLER_DATA_NA);
         }
     }
 
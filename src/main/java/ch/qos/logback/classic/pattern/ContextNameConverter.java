@@ -14,13 +14,14 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
 /**
  * Converts an event to the logger context's name.
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-public class ContextNameConverter extends ClassicConverter {
+public class ContextNameConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     /**
      * Return the name of the logger context's name.
@@ -29,4 +30,8 @@ public class ContextNameConverter extends ClassicConverter {
         return event.getLoggerContextVO().getName();
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        appendValue(buf, event.getLoggerContextVO().getName());
+    }
+
 }
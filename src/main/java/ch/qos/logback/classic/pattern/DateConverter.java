@@ -17,10 +17,11 @@ import java.util.List;
 import java.util.TimeZone;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.util.CachingDateFormatter;
 
-public class DateConverter extends ClassicConverter {
+public class DateConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     long lastTimestamp = -1;
     String timestampStrCache = null;
@@ -60,4 +61,8 @@ public class DateConverter extends ClassicConverter {
         long timestamp = le.getTimeStamp();
         return cachingDateFormatter.format(timestamp);
     }
+
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        cachingDateFormatter.format(event.getTimeStamp(), buf);
+    }
 }
@@ -15,8 +15,9 @@ package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.CallerData;
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
-public class FileOfCallerConverter extends ClassicConverter {
+public class FileOfCallerConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     public String convert(ILoggingEvent le) {
         StackTraceElement[] cda = le.getCallerData();
@@ -27,4 +28,13 @@ public class FileOfCallerConverter extends ClassicConverter {
         }
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        StackTraceElement[] cda = event.getCallerData();
+        if (cda != null && cda.length > 0) {
+            appendValue(buf, cda[0].getFileName());
+        } else {
+            buf.append(CallerData.NA);
+        }
+    }
+
 }
@@ -14,16 +14,21 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
 /**
  * Return the event's level.
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-public class LevelConverter extends ClassicConverter {
+public class LevelConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     public String convert(ILoggingEvent le) {
         return le.getLevel().toString();
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        buf.append(event.getLevel().levelStr);
+    }
+
 }
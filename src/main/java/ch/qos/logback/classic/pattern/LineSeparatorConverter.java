@@ -14,12 +14,17 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 import ch.qos.logback.core.CoreConstants;
 
-public class LineSeparatorConverter extends ClassicConverter {
+public class LineSeparatorConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     public String convert(ILoggingEvent event) {
         return CoreConstants.LINE_SEPARATOR;
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        buf.append(CoreConstants.LINE_SEPARATOR);
+    }
+
 }
@@ -14,6 +14,7 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -25,7 +26,7 @@ import java.util.concurrent.atomic.AtomicLong;
  * <b>EXPERIMENTAL</b> This class is experimental and may be removed in the future.
  *
  */
-public class LocalSequenceNumberConverter extends ClassicConverter {
+public class LocalSequenceNumberConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     AtomicLong sequenceNumber = new AtomicLong(System.currentTimeMillis());
 
@@ -33,4 +34,8 @@ public class LocalSequenceNumberConverter extends ClassicConverter {
     public String convert(ILoggingEvent event) {
         return Long.toString(sequenceNumber.getAndIncrement());
     }
+
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        buf.append(sequenceNumber.getAndIncrement());
+    }
 }
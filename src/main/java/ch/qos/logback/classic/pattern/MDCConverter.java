@@ -14,12 +14,13 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
 import java.util.Map;
 
 import static ch.qos.logback.core.util.OptionHelper.extractDefaultReplacement;
 
-public class MDCConverter extends ClassicConverter {
+public class MDCConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     private String key;
     private String defaultValue = "";
@@ -61,11 +62,29 @@ public class MDCConverter extends ClassicConverter {
         }
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        Map<String, String> mdcPropertyMap = event.getMDCPropertyMap();
+
+        if (mdcPropertyMap == null) {
+            appendValue(buf, defaultValue);
+        } else if (key == null) {
+            appendMDCForAllKeys(buf, mdcPropertyMap);
+        } else {
+            String value = mdcPropertyMap.get(key);
+            appendValue(buf, value != null ? value : defaultValue);
+        }
+    }
+
     /**
      * if no key is specified, return all the values present in the MDC, in the format "k1=v1, k2=v2, ..."
      */
     private String outputMDCForAllKeys(Map<String, String> mdcPropertyMap) {
         StringBuilder buf = new StringBuilder();
+        appendMDCForAllKeys(buf, mdcPropertyMap);
+        return buf.toString();
+    }
+
+    private void appendMDCForAllKeys(StringBuilder buf, Map<String, String> mdcPropertyMap) {
         boolean first = true;
         for (Map.Entry<String, String> entry : mdcPropertyMap.entrySet()) {
             if (first) {
@@ -76,6 +95,5 @@ public class MDCConverter extends ClassicConverter {
             // format: key0=value0, key1=value1
             buf.append(entry.getKey()).append('=').append(entry.getValue());
         }
-        return buf.toString();
     }
 }
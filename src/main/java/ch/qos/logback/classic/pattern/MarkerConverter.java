@@ -16,13 +16,14 @@ package ch.qos.logback.classic.pattern;
 import org.slf4j.Marker;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
 /**
  * Return the event's marker value(s).
  * 
  * @author S&eacute;bastien Pennec
  */
-public class MarkerConverter extends ClassicConverter {
+public class MarkerConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     private static String EMPTY = "";
 
@@ -35,4 +36,11 @@ public class MarkerConverter extends ClassicConverter {
         }
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        Marker marker = event.getMarker();
+        if (marker != null) {
+            buf.append(marker.toString());
+        }
+    }
+
 }
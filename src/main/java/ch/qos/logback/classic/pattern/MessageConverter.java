@@ -14,16 +14,21 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
 /**
  * Return the event's formatted message.
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-public class MessageConverter extends ClassicConverter {
+public class MessageConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     public String convert(ILoggingEvent event) {
         return event.getFormattedMessage();
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        appendValue(buf, event.getFormattedMessage());
+    }
+
 }
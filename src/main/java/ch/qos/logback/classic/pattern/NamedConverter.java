@@ -14,8 +14,9 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
-public abstract class NamedConverter extends ClassicConverter {
+public abstract class NamedConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     Abbreviator abbreviator = null;
 
@@ -34,9 +35,9 @@ public abstract class NamedConverter extends ClassicConverter {
             try {
                 int targetLen = Integer.parseInt(optStr);
                 if (targetLen == 0) {
-                    abbreviator = new ClassNameOnlyAbbreviator();
+                    abbreviator = new CachingAbbreviator(new ClassNameOnlyAbbreviator());
                 } else if (targetLen > 0) {
-                    abbreviator = new TargetLengthBasedClassNameAbbreviator(targetLen);
+                    abbreviator = new CachingAbbreviator(new TargetLengthBasedClassNameAbbreviator(targetLen));
                 }
             } catch (NumberFormatException nfe) {
                 // FIXME: better error reporting
@@ -53,4 +54,13 @@ public abstract class NamedConverter extends ClassicConverter {
             return abbreviator.abbreviate(fqn);
         }
     }
+
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        String fqn = getFullyQualifiedName(event);
+        if (abbreviator == null) {
+            appendValue(buf, fqn);
+        } else {
+            buf.append(abbreviator.abbreviate(fqn));
+        }
+    }
 }
@@ -16,9 +16,10 @@ package ch.qos.logback.classic.pattern;
 import java.util.Map;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 import ch.qos.logback.classic.spi.LoggerContextVO;
 
-public final class PropertyConverter extends ClassicConverter {
+public final class PropertyConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     String key;
 
@@ -44,4 +45,8 @@ public final class PropertyConverter extends ClassicConverter {
             }
         }
     }
+
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        appendValue(buf, convert(event));
+    }
 }
@@ -14,8 +14,9 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
-public class RelativeTimeConverter extends ClassicConverter {
+public class RelativeTimeConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     long lastTimestamp = -1;
     String timesmapCache = null;
@@ -32,4 +33,8 @@ public class RelativeTimeConverter extends ClassicConverter {
             return timesmapCache;
         }
     }
+
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        buf.append(event.getTimeStamp() - event.getLoggerContextVO().getBirthTime());
+    }
 }
@@ -21,10 +21,11 @@ import java.util.Date;
 import java.util.Locale;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 import ch.qos.logback.classic.util.LevelToSyslogSeverity;
 import ch.qos.logback.core.net.SyslogAppenderBase;
 
-public class SyslogStartConverter extends ClassicConverter {
+public class SyslogStartConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     long lastTimestamp = -1;
     String timesmapStr = null;
@@ -63,7 +64,11 @@ public class SyslogStartConverter extends ClassicConverter {
 
     public String convert(ILoggingEvent event) {
         StringBuilder sb = new StringBuilder();
+        appendTo(sb, event);
+        return sb.toString();
+    }
 
+    public void appendTo(StringBuilder sb, ILoggingEvent event) {
         int pri = facility + LevelToSyslogSeverity.convert(event);
 
         sb.append("<");
@@ -73,8 +78,6 @@ public class SyslogStartConverter extends ClassicConverter {
         sb.append(' ');
         sb.append(localHostName);
         sb.append(' ');
-
-        return sb.toString();
     }
 
     /**
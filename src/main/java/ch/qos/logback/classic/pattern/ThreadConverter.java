@@ -14,16 +14,21 @@
 package ch.qos.logback.classic.pattern;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.pattern.AppendableConverter;
 
 /**
  * Return the events thread (usually the current thread).
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-public class ThreadConverter extends ClassicConverter {
+public class ThreadConverter extends ClassicConverter implements AppendableConverter<ILoggingEvent> {
 
     public String convert(ILoggingEvent event) {
         return event.getThreadName();
     }
 
+    public void appendTo(StringBuilder buf, ILoggingEvent event) {
+        appendValue(buf, event.getThreadName());
+    }
+
 }
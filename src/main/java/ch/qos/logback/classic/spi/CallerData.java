@@ -48,6 +48,35 @@ public class CallerData {
      */
     public static final StackTraceElement[] EMPTY_CALLER_DATA_ARRAY = new StackTraceElement[0];
 
+    /**
+     * Whether java.lang.StackWalker, available since Java 9, can be used.
+     */
+    static final boolean STACK_WALKER_AVAILABLE;
+
+    static {
+        boolean available = false;
+        try {
+            Class.forName("java.lang.StackWalker");
+            available = true;
+        } catch (Throwable e) {
+            // Java 8 or older
+        }
+        STACK_WALKER_AVAILABLE = available;
+    }
+
+    /**
+     * Extract caller data information for the current thread. On JVMs providing
+     * StackWalker, the stack is walked lazily and only the frames up to the
+     * requested depth are materialized. Otherwise the stack trace of a new
+     * Throwable is used.
+     */
+    public static StackTraceElement[] extract(String fqnOfInvokingClass, final int maxDepth, List<String> frameworkPackageList) {
+        if (STACK_WALKER_AVAILABLE) {
+            return StackWalkerCallerData.extract(fqnOfInvokingClass, maxDepth, frameworkPackageList);
+        }
+        return extract(new Throwable(), fqnOfInvokingClass, maxDepth, frameworkPackageList);
+    }
+
     /**
      * Extract caller data information as an array based on a Throwable passed as
      * parameter
@@ -119,7 +119,7 @@ public class LoggingEvent implements ILoggingEvent {
             this.throwableProxy = new ThrowableProxy(throwable);
             LoggerContext lc = logger.getLoggerContext();
             if (lc.isPackagingDataEnabled()) {
-                this.throwableProxy.calculatePackagingData();
+                this.throwableProxy.calculatePackagingData(lc.getPackagingDataCache());
             }
         }
 
@@ -255,8 +255,7 @@ public class LoggingEvent implements ILoggingEvent {
      */
     public StackTraceElement[] getCallerData() {
         if (callerDataArray == null) {
-            callerDataArray = CallerData
-                            .extract(new Throwable(), fqnOfLoggerClass, loggerContext.getMaxCallerDataDepth(), loggerContext.getFrameworkPackages());
+            callerDataArray = CallerData.extract(fqnOfLoggerClass, loggerContext.getMaxCallerDataDepth(), loggerContext.getFrameworkPackages());
         }
         return callerDataArray;
     }
@@ -13,10 +13,10 @@
  */
 package ch.qos.logback.classic.spi;
 
+import java.io.Externalizable;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Map;
 
 import org.slf4j.Marker;
@@ -29,15 +29,21 @@ import ch.qos.logback.classic.Level;
 /**
  * A read-only and serializable implementation of {@link ILoggingEvent}.
  * 
+ * <p>
+ * The serialized form is written by hand. Strings such as logger and thread
+ * names, the {@link LoggerContextVO} and the names in stack frames are written
+ * as objects, so that an object stream sends them once and then refers to
+ * them by handle until it is reset.
+ * 
  * @author Ceki G&uuml;lc&uuml;
  * @since 0.9.16
  */
-public class LoggingEventVO implements ILoggingEvent, Serializable {
+public class LoggingEventVO implements ILoggingEvent, Externalizable {
 
-    private static final long serialVersionUID = 6553722650255690312L;
+    // the externalized form is not compatible with the former serialized form
+    private static final long serialVersionUID = 2434210435259759483L;
 
-    private static final int NULL_ARGUMENT_ARRAY = -1;
-    private static final String NULL_ARGUMENT_ARRAY_ELEMENT = "NULL_ARGUMENT_ARRAY_ELEMENT";
+    private static final int NULL_ARRAY = -1;
 
     private String threadName;
     private String loggerName;
@@ -156,40 +162,60 @@ public class LoggingEventVO implements ILoggingEvent, Serializable {
     public void prepareForDeferredProcessing() {
     }
 
-    private void writeObject(ObjectOutputStream out) throws IOException {
-        out.defaultWriteObject();
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(threadName);
+        out.writeObject(loggerName);
+        out.writeObject(loggerContextVO);
         out.writeInt(level.levelInt);
+        out.writeObject(message);
+        // arguments are sent as strings, their classes may not be known remotely
         if (argumentArray != null) {
-            int len = argumentArray.length;
-            out.writeInt(len);
-            for (int i = 0; i < argumentArray.length; i++) {
-                if (argumentArray[i] != null) {
-                    out.writeObject(argumentArray[i].toString());
-                } else {
-                    out.writeObject(NULL_ARGUMENT_ARRAY_ELEMENT);
-                }
+            out.writeInt(argumentArray.length);
+            for (Object argument : argumentArray) {
+                out.writeObject(argument == null ? null : argument.toString());
             }
         } else {
-            out.writeInt(NULL_ARGUMENT_ARRAY);
+            out.writeInt(NULL_ARRAY);
         }
-
+        out.writeObject(throwableProxy);
+        if (callerDataArray != null) {
+            out.writeInt(callerDataArray.length);
+            for (StackTraceElement ste : callerDataArray) {
+                ThrowableProxyVO.writeStackTraceElement(out, ste);
+            }
+        } else {
+            out.writeInt(NULL_ARRAY);
+        }
+        out.writeObject(marker);
+        out.writeObject(mdcPropertyMap);
+        out.writeLong(timeStamp);
     }
 
-    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        in.defaultReadObject();
-        int levelInt = in.readInt();
-        level = Level.toLevel(levelInt);
-
+    @SuppressWarnings("unchecked")
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        threadName = (String) in.readObject();
+        loggerName = (String) in.readObject();
+        loggerContextVO = (LoggerContextVO) in.readObject();
+        level = Level.toLevel(in.readInt());
+        message = (String) in.readObject();
         int argArrayLen = in.readInt();
-        if (argArrayLen != NULL_ARGUMENT_ARRAY) {
+        if (argArrayLen != NULL_ARRAY) {
             argumentArray = new String[argArrayLen];
             for (int i = 0; i < argArrayLen; i++) {
-                Object val = in.readObject();
-                if (!NULL_ARGUMENT_ARRAY_ELEMENT.equals(val)) {
-                    argumentArray[i] = val;
-                }
+                argumentArray[i] = in.readObject();
+            }
+        }
+        throwableProxy = (ThrowableProxyVO) in.readObject();
+        int callerDataLen = in.readInt();
+        if (callerDataLen != NULL_ARRAY) {
+            callerDataArray = new StackTraceElement[callerDataLen];
+            for (int i = 0; i < callerDataLen; i++) {
+                callerDataArray[i] = ThrowableProxyVO.readStackTraceElement(in);
             }
         }
+        marker = (Marker) in.readObject();
+        mdcPropertyMap = (Map<String, String>) in.readObject();
+        timeStamp = in.readLong();
     }
 
     @Override
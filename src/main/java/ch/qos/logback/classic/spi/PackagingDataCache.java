@@ -0,0 +1,93 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.spi;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of {@link ClassPackagingData} shared by all the
+ * {@link PackagingDataCalculator} instances of a
+ * {@link ch.qos.logback.classic.LoggerContext LoggerContext}, so that the class
+ * loading and code source lookups for a given class are done once, and not
+ * once per logged exception.
+ * 
+ * <p>Entries are grouped by the class loader used to resolve the class. Class
+ * loaders are weakly referenced so that the cache does not prevent
+ * redeployed applications from being garbage collected. The number of entries
+ * per class loader is bounded by <code>maxSizePerClassLoader</code>.
+ */
+public class PackagingDataCache {
+
+    public static final int DEFAULT_MAX_SIZE_PER_CLASS_LOADER = 4096;
+
+    final int maxSizePerClassLoader;
+
+    // exact and inferred data for the same class name differ in their "exact" flag
+    private final Map<ClassLoader, ConcurrentMap<String, ClassPackagingData>> exactMap = newWeakMap();
+    private final Map<ClassLoader, ConcurrentMap<String, ClassPackagingData>> inferredMap = newWeakMap();
+
+    public PackagingDataCache() {
+        this(DEFAULT_MAX_SIZE_PER_CLASS_LOADER);
+    }
+
+    public PackagingDataCache(int maxSizePerClassLoader) {
+        this.maxSizePerClassLoader = maxSizePerClassLoader;
+    }
+
+    private static Map<ClassLoader, ConcurrentMap<String, ClassPackagingData>> newWeakMap() {
+        return Collections.synchronizedMap(new WeakHashMap<ClassLoader, ConcurrentMap<String, ClassPackagingData>>());
+    }
+
+    /**
+     * Returns the cached data for the class named <code>className</code> as
+     * resolved through <code>classLoader</code>, or null if there is none.
+     * 
+     * @param classLoader may be null
+     */
+    public ClassPackagingData get(ClassLoader classLoader, String className, boolean exact) {
+        ConcurrentMap<String, ClassPackagingData> map = (exact ? exactMap : inferredMap).get(classLoader);
+        if (map == null) {
+            return null;
+        }
+        return map.get(className);
+    }
+
+    /**
+     * @param classLoader may be null
+     */
+    public void put(ClassLoader classLoader, String className, ClassPackagingData cpd) {
+        Map<ClassLoader, ConcurrentMap<String, ClassPackagingData>> loaderMap = cpd.isExact() ? exactMap : inferredMap;
+        ConcurrentMap<String, ClassPackagingData> map;
+        synchronized (loaderMap) {
+            map = loaderMap.get(classLoader);
+            if (map == null) {
+                map = new ConcurrentHashMap<String, ClassPackagingData>();
+                loaderMap.put(classLoader, map);
+            }
+        }
+        if (map.size() >= maxSizePerClassLoader) {
+            map.clear();
+        }
+        map.put(className, cpd);
+    }
+
+    public void clear() {
+        exactMap.clear();
+        inferredMap.clear();
+    }
+}
@@ -32,6 +32,11 @@ public class PackagingDataCalculator {
 
     HashMap<String, ClassPackagingData> cache = new HashMap<String, ClassPackagingData>();
 
+    /**
+     * Context-wide cache consulted on misses of the local cache, may be null.
+     */
+    final PackagingDataCache sharedCache;
+
     private static boolean GET_CALLER_CLASS_METHOD_AVAILABLE = false; // private static boolean
                                                                       // HAS_GET_CLASS_LOADER_PERMISSION = false;
 
@@ -53,6 +58,14 @@ public class PackagingDataCalculator {
         }
     }
 
+    public PackagingDataCalculator() {
+        this(null);
+    }
+
+    public PackagingDataCalculator(PackagingDataCache sharedCache) {
+        this.sharedCache = sharedCache;
+    }
+
     public void calculate(IThrowableProxy tp) {
         while (tp != null) {
             populateFrames(tp.getStackTraceElementProxyArray());
@@ -119,9 +132,18 @@ public class PackagingDataCalculator {
         if (cpd != null) {
             return cpd;
         }
-        String version = getImplementationVersion(type);
-        String codeLocation = getCodeLocation(type);
-        cpd = new ClassPackagingData(codeLocation, version);
+        ClassLoader classLoader = type.getClassLoader();
+        if (sharedCache != null) {
+            cpd = sharedCache.get(classLoader, className, true);
+        }
+        if (cpd == null) {
+            String version = getImplementationVersion(type);
+            String codeLocation = getCodeLocation(type);
+            cpd = new ClassPackagingData(codeLocation, version);
+            if (sharedCache != null) {
+                sharedCache.put(classLoader, className, cpd);
+            }
+        }
         cache.put(className, cpd);
         return cpd;
     }
@@ -132,10 +154,20 @@ public class PackagingDataCalculator {
         if (cpd != null) {
             return cpd;
         }
-        Class type = bestEffortLoadClass(lastExactClassLoader, className);
-        String version = getImplementationVersion(type);
-        String codeLocation = getCodeLocation(type);
-        cpd = new ClassPackagingData(codeLocation, version, false);
+        // the result depends on the class loader the search starts from
+        ClassLoader searchClassLoader = lastExactClassLoader != null ? lastExactClassLoader : Thread.currentThread().getContextClassLoader();
+        if (sharedCache != null) {
+            cpd = sharedCache.get(searchClassLoader, className, false);
+        }
+        if (cpd == null) {
+            Class type = bestEffortLoadClass(lastExactClassLoader, className);
+            String version = getImplementationVersion(type);
+            String codeLocation = getCodeLocation(type);
+            cpd = new ClassPackagingData(codeLocation, version, false);
+            if (sharedCache != null) {
+                sharedCache.put(searchClassLoader, className, cpd);
+            }
+        }
         cache.put(className, cpd);
         return cpd;
     }
@@ -0,0 +1,66 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.classic.spi;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Extracts caller data with {@link StackWalker}. Frames are walked lazily:
+ * the walk stops as soon as the logging framework frames have been skipped
+ * and <code>maxDepth</code> caller frames collected, and only these frames are
+ * turned into {@link StackTraceElement} instances.
+ * 
+ * <p>This class must only be loaded on JVMs providing {@link StackWalker},
+ * see {@link CallerData#STACK_WALKER_AVAILABLE}.
+ */
+class StackWalkerCallerData {
+
+    // reflection frames are retained in order to match Throwable.getStackTrace()
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.SHOW_REFLECT_FRAMES);
+
+    static StackTraceElement[] extract(final String fqnOfInvokingClass, final int maxDepth, final List<String> frameworkPackageList) {
+        return STACK_WALKER.walk(new Function<Stream<StackWalker.StackFrame>, StackTraceElement[]>() {
+            public StackTraceElement[] apply(Stream<StackWalker.StackFrame> frames) {
+                return extract(frames.iterator(), fqnOfInvokingClass, maxDepth, frameworkPackageList);
+            }
+        });
+    }
+
+    private static StackTraceElement[] extract(Iterator<StackWalker.StackFrame> frames, String fqnOfInvokingClass, int maxDepth,
+                    List<String> frameworkPackageList) {
+        boolean inFrameworkSpace = false;
+        while (frames.hasNext()) {
+            StackWalker.StackFrame frame = frames.next();
+            if (CallerData.isInFrameworkSpace(frame.getClassName(), fqnOfInvokingClass, frameworkPackageList)) {
+                inFrameworkSpace = true;
+            } else if (inFrameworkSpace) {
+                // the caller is the first frame following the framework frames
+                List<StackTraceElement> callerDataList = new ArrayList<StackTraceElement>();
+                callerDataList.add(frame.toStackTraceElement());
+                while (callerDataList.size() < maxDepth && frames.hasNext()) {
+                    callerDataList.add(frames.next().toStackTraceElement());
+                }
+                if (callerDataList.size() > maxDepth) {
+                    callerDataList = callerDataList.subList(0, maxDepth);
+                }
+                return callerDataList.toArray(new StackTraceElement[callerDataList.size()]);
+            }
+        }
+        return inFrameworkSpace ? new StackTraceElement[0] : CallerData.EMPTY_CALLER_DATA_ARRAY;
+    }
+}
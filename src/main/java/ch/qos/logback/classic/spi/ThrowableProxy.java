@@ -132,6 +132,19 @@ public class ThrowableProxy implements IThrowableProxy {
         return packagingDataCalculator;
     }
 
+    /**
+     * Calculate the packaging data using a cache shared beyond this throwable,
+     * typically the one held by the {@link ch.qos.logback.classic.LoggerContext LoggerContext}.
+     *
+     * @param packagingDataCache may be null
+     */
+    public void calculatePackagingData(PackagingDataCache packagingDataCache) {
+        if (throwable != null && packagingDataCalculator == null) {
+            packagingDataCalculator = new PackagingDataCalculator(packagingDataCache);
+        }
+        calculatePackagingData();
+    }
+
     public void calculatePackagingData() {
         if (calculatedPackageData) {
             return;
@@ -13,12 +13,18 @@
  */
 package ch.qos.logback.classic.spi;
 
-import java.io.Serializable;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
 import java.util.Arrays;
 
-public class ThrowableProxyVO implements IThrowableProxy, Serializable {
+public class ThrowableProxyVO implements IThrowableProxy, Externalizable {
 
-    private static final long serialVersionUID = -773438177285807139L;
+    // the externalized form is not compatible with the former serialized form
+    private static final long serialVersionUID = -603712882460652716L;
+
+    private static final int NULL_ARRAY = -1;
 
     private String className;
     private String message;
@@ -90,6 +96,74 @@ public class ThrowableProxyVO implements IThrowableProxy, Serializable {
         return true;
     }
 
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject(className);
+        out.writeObject(message);
+        out.writeInt(commonFramesCount);
+        if (stackTraceElementProxyArray != null) {
+            out.writeInt(stackTraceElementProxyArray.length);
+            for (StackTraceElementProxy step : stackTraceElementProxyArray) {
+                writeStackTraceElement(out, step.getStackTraceElement());
+                out.writeObject(step.getClassPackagingData());
+            }
+        } else {
+            out.writeInt(NULL_ARRAY);
+        }
+        out.writeObject(cause);
+        if (suppressed != null) {
+            out.writeInt(suppressed.length);
+            for (IThrowableProxy s : suppressed) {
+                out.writeObject(s);
+            }
+        } else {
+            out.writeInt(NULL_ARRAY);
+        }
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        className = (String) in.readObject();
+        message = (String) in.readObject();
+        commonFramesCount = in.readInt();
+        int stepLen = in.readInt();
+        if (stepLen != NULL_ARRAY) {
+            stackTraceElementProxyArray = new StackTraceElementProxy[stepLen];
+            for (int i = 0; i < stepLen; i++) {
+                StackTraceElementProxy step = new StackTraceElementProxy(readStackTraceElement(in));
+                ClassPackagingData cpd = (ClassPackagingData) in.readObject();
+                if (cpd != null) {
+                    step.setClassPackagingData(cpd);
+                }
+                stackTraceElementProxyArray[i] = step;
+            }
+        }
+        cause = (IThrowableProxy) in.readObject();
+        int suppressedLen = in.readInt();
+        if (suppressedLen != NULL_ARRAY) {
+            suppressed = new IThrowableProxy[suppressedLen];
+            for (int i = 0; i < suppressedLen; i++) {
+                suppressed[i] = (IThrowableProxy) in.readObject();
+            }
+        }
+    }
+
+    /**
+     * Writes the given stack frame. Its strings are written as objects since
+     * the JVM shares the instances of class, method and file names.
+     */
+    static void writeStackTraceElement(ObjectOutput out, StackTraceElement ste) throws IOException {
+        out.writeObject(ste.getClassName());
+        out.writeObject(ste.getMethodName());
+        out.writeObject(ste.getFileName());
+        out.writeInt(ste.getLineNumber());
+    }
+
+    static StackTraceElement readStackTraceElement(ObjectInput in) throws IOException, ClassNotFoundException {
+        String declaringClass = (String) in.readObject();
+        String methodName = (String) in.readObject();
+        String fileName = (String) in.readObject();
+        return new StackTraceElement(declaringClass, methodName, fileName, in.readInt());
+    }
+
     public static ThrowableProxyVO build(IThrowableProxy throwableProxy) {
         if (throwableProxy == null) {
             return null;
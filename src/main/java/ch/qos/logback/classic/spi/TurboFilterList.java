@@ -13,7 +13,15 @@
  */
 package ch.qos.logback.classic.spi;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import org.slf4j.Marker;
 
@@ -25,12 +33,25 @@ import ch.qos.logback.core.spi.FilterReply;
 /**
  * Implementation of TurboFilterAttachable.
  * 
+ * <p>In order for the evaluation of the chain not to allocate, filters are read
+ * from an array snapshot which is replaced whenever the list is modified. The
+ * list must therefore be modified through the methods overridden here. In
+ * particular, {@link #subList(int, int)} returns a read-only view.
+ * 
  * @author Ceki G&uuml;lc&uuml;
  */
 final public class TurboFilterList extends CopyOnWriteArrayList<TurboFilter> {
 
     private static final long serialVersionUID = 1L;
 
+    private static final TurboFilter[] EMPTY = new TurboFilter[0];
+
+    private transient volatile TurboFilter[] snapshot = EMPTY;
+
+    private void updateSnapshot() {
+        snapshot = toArray(EMPTY);
+    }
+
     /**
      * Loop through the filters in the chain. As soon as a filter decides on
      * ACCEPT or DENY, then that value is returned. If all of the filters return
@@ -38,26 +59,44 @@ final public class TurboFilterList extends CopyOnWriteArrayList<TurboFilter> {
      */
     public FilterReply getTurboFilterChainDecision(final Marker marker, final Logger logger, final Level level, final String format, final Object[] params,
                     final Throwable t) {
+        final TurboFilter[] tfa = snapshot;
+        final int len = tfa.length;
+        for (int i = 0; i < len; i++) {
+            final FilterReply r = tfa[i].decide(marker, logger, level, format, params, t);
+            if (r == FilterReply.DENY || r == FilterReply.ACCEPT) {
+                return r;
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
 
-        final int size = size();
-        // if (size == 0) {
-        // return FilterReply.NEUTRAL;
-        // }
-        if (size == 1) {
-            try {
-                TurboFilter tf = get(0);
-                return tf.decide(marker, logger, level, format, params, t);
-            } catch (IndexOutOfBoundsException iobe) {
-                return FilterReply.NEUTRAL;
+    /**
+     * Same as {@link #getTurboFilterChainDecision(Marker, Logger, Level, String, Object[], Throwable)}
+     * for logging calls with a single parameter.
+     */
+    public FilterReply getTurboFilterChainDecision(final Marker marker, final Logger logger, final Level level, final String format, final Object param,
+                    final Throwable t) {
+        final TurboFilter[] tfa = snapshot;
+        final int len = tfa.length;
+        for (int i = 0; i < len; i++) {
+            final FilterReply r = tfa[i].decide(marker, logger, level, format, param, t);
+            if (r == FilterReply.DENY || r == FilterReply.ACCEPT) {
+                return r;
             }
         }
+        return FilterReply.NEUTRAL;
+    }
 
-        Object[] tfa = toArray();
+    /**
+     * Same as {@link #getTurboFilterChainDecision(Marker, Logger, Level, String, Object[], Throwable)}
+     * for logging calls with two parameters.
+     */
+    public FilterReply getTurboFilterChainDecision(final Marker marker, final Logger logger, final Level level, final String format, final Object param1,
+                    final Object param2, final Throwable t) {
+        final TurboFilter[] tfa = snapshot;
         final int len = tfa.length;
         for (int i = 0; i < len; i++) {
-            // for (TurboFilter tf : this) {
-            final TurboFilter tf = (TurboFilter) tfa[i];
-            final FilterReply r = tf.decide(marker, logger, level, format, params, t);
+            final FilterReply r = tfa[i].decide(marker, logger, level, format, param1, param2, t);
             if (r == FilterReply.DENY || r == FilterReply.ACCEPT) {
                 return r;
             }
@@ -65,16 +104,116 @@ final public class TurboFilterList extends CopyOnWriteArrayList<TurboFilter> {
         return FilterReply.NEUTRAL;
     }
 
-    // public boolean remove(TurboFilter turboFilter) {
-    // return tfList.remove(turboFilter);
-    // }
-    //
-    // public TurboFilter remove(int index) {
-    // return tfList.remove(index);
-    // }
-    //
-    // final public int size() {
-    // return tfList.size();
-    // }
+    // === mutators, each followed by a snapshot update ===
+
+    @Override
+    public synchronized boolean add(TurboFilter tf) {
+        boolean result = super.add(tf);
+        updateSnapshot();
+        return result;
+    }
 
+    @Override
+    public synchronized void add(int index, TurboFilter tf) {
+        super.add(index, tf);
+        updateSnapshot();
+    }
+
+    @Override
+    public synchronized boolean addIfAbsent(TurboFilter tf) {
+        boolean result = super.addIfAbsent(tf);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean addAll(Collection<? extends TurboFilter> c) {
+        boolean result = super.addAll(c);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean addAll(int index, Collection<? extends TurboFilter> c) {
+        boolean result = super.addAll(index, c);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized int addAllAbsent(Collection<? extends TurboFilter> c) {
+        int result = super.addAllAbsent(c);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized TurboFilter set(int index, TurboFilter tf) {
+        TurboFilter result = super.set(index, tf);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized TurboFilter remove(int index) {
+        TurboFilter result = super.remove(index);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean remove(Object o) {
+        boolean result = super.remove(o);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean removeAll(Collection<?> c) {
+        boolean result = super.removeAll(c);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean retainAll(Collection<?> c) {
+        boolean result = super.retainAll(c);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized boolean removeIf(Predicate<? super TurboFilter> filter) {
+        boolean result = super.removeIf(filter);
+        updateSnapshot();
+        return result;
+    }
+
+    @Override
+    public synchronized void replaceAll(UnaryOperator<TurboFilter> operator) {
+        super.replaceAll(operator);
+        updateSnapshot();
+    }
+
+    @Override
+    public synchronized void sort(Comparator<? super TurboFilter> c) {
+        super.sort(c);
+        updateSnapshot();
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        updateSnapshot();
+    }
+
+    @Override
+    public List<TurboFilter> subList(int fromIndex, int toIndex) {
+        return Collections.unmodifiableList(super.subList(fromIndex, toIndex));
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        updateSnapshot();
+    }
 }
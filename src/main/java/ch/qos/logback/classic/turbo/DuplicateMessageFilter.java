@@ -66,6 +66,16 @@ public class DuplicateMessageFilter extends TurboFilter {
         }
     }
 
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param1, Object param2, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
     public int getAllowedRepetitions() {
         return allowedRepetitions;
     }
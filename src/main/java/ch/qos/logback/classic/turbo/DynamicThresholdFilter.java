@@ -252,4 +252,14 @@ public class DynamicThresholdFilter extends TurboFilter {
             return onLower;
         }
     }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String s, Object param, Throwable throwable) {
+        return decide(marker, logger, level, s, (Object[]) null, throwable);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String s, Object param1, Object param2, Throwable throwable) {
+        return decide(marker, logger, level, s, (Object[]) null, throwable);
+    }
 }
@@ -61,6 +61,16 @@ public class MDCFilter extends MatchingFilter {
         return onMismatch;
     }
 
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param1, Object param2, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
     public void setValue(String value) {
         this.value = value;
     }
@@ -54,6 +54,16 @@ public class MarkerFilter extends MatchingFilter {
         }
     }
 
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param1, Object param2, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
     /**
      * The marker to match in the event.
      * 
@@ -121,6 +121,16 @@ public class ReconfigureOnChangeFilter extends TurboFilter {
         return FilterReply.NEUTRAL;
     }
 
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param1, Object param2, Throwable t) {
+        return decide(marker, logger, level, format, (Object[]) null, t);
+    }
+
     // experiments indicate that even for CPU intensive applications with 200 or more threads MASK
     // values in the order of 0xFFFF is appropriate
     private static final int MAX_MASK = 0xFFFF;
@@ -51,6 +51,27 @@ public abstract class TurboFilter extends ContextAwareBase implements LifeCycle
      */
     public abstract FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t);
 
+    /**
+     * Variant of {@link #decide(Marker, Logger, Level, String, Object[], Throwable)}
+     * invoked for logging calls with a single parameter. The default
+     * implementation wraps the parameter in an array. Filters which do not look
+     * at the parameters should override this method so that no array is
+     * allocated.
+     */
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param, Throwable t) {
+        return decide(marker, logger, level, format, new Object[] { param }, t);
+    }
+
+    /**
+     * Variant of {@link #decide(Marker, Logger, Level, String, Object[], Throwable)}
+     * invoked for logging calls with two parameters. The default implementation
+     * wraps the parameters in an array. Filters which do not look at the
+     * parameters should override this method so that no array is allocated.
+     */
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object param1, Object param2, Throwable t) {
+        return decide(marker, logger, level, format, new Object[] { param1, param2 }, t);
+    }
+
     public void start() {
         this.start = true;
     }
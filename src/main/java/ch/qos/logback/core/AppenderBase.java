@@ -13,6 +13,7 @@
  */
 package ch.qos.logback.core;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import ch.qos.logback.core.filter.Filter;
@@ -29,7 +30,7 @@ import ch.qos.logback.core.status.WarnStatus;
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-abstract public class AppenderBase<E> extends ContextAwareBase implements Appender<E> {
+abstract public class AppenderBase<E> extends ContextAwareBase implements BatchAppender<E> {
 
     protected volatile boolean started = false;
 
@@ -55,7 +56,47 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
 
     static final int ALLOWED_REPEATS = 5;
 
+    /**
+     * Whether a sub-class overrides {@link #doAppend(Object)}, which then has
+     * to see every event appended in a batch.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_DO_APPEND = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("doAppend", Object.class).getDeclaringClass() != AppenderBase.class;
+            } catch (NoSuchMethodException e) {
+                return Boolean.TRUE;
+            }
+        }
+    };
+
     public synchronized void doAppend(E eventObject) {
+        doAppend(eventObject, null);
+    }
+
+    /**
+     * Append the events which pass the filter chain with a single call to
+     * {@link #appendBatch(List)}. If a sub-class overrides
+     * {@link #doAppend(Object)}, the events are handed to it one by one instead.
+     */
+    public synchronized void doAppendBatch(List<E> events) {
+        if (OVERRIDES_DO_APPEND.get(getClass())) {
+            for (E event : events) {
+                doAppend(event);
+            }
+            return;
+        }
+        doAppend(null, events);
+    }
+
+    /**
+     * Append either a single event or, if <code>events</code> is not null, a
+     * batch of events, applying the guard, started check and filter chain shared
+     * by {@link #doAppend(Object)} and {@link #doAppendBatch(List)}. Must be
+     * called while holding this appender's monitor.
+     */
+    private void doAppend(E eventObject, List<E> events) {
         // WARNING: The guard check MUST be the first statement in the
         // doAppend() method.
 
@@ -74,12 +115,25 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
                 return;
             }
 
-            if (getFilterChainDecision(eventObject) == FilterReply.DENY) {
+            if (events == null) {
+                if (getFilterChainDecision(eventObject) == FilterReply.DENY) {
+                    return;
+                }
+
+                // ok, we now invoke derived class' implementation of append
+                this.append(eventObject);
                 return;
             }
 
-            // ok, we now invoke derived class' implementation of append
-            this.append(eventObject);
+            List<E> accepted = new ArrayList<E>(events.size());
+            for (E event : events) {
+                if (getFilterChainDecision(event) != FilterReply.DENY) {
+                    accepted.add(event);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                this.appendBatch(accepted);
+            }
 
         } catch (Exception e) {
             if (exceptionCount++ < ALLOWED_REPEATS) {
@@ -92,6 +146,17 @@ abstract public class AppenderBase<E> extends ContextAwareBase implements Append
 
     abstract protected void append(E eventObject);
 
+    /**
+     * Append the events which passed the filter chain. The default implementation
+     * calls {@link #append(Object)} for each event. Sub-classes able to write a whole
+     * batch more efficiently should override this method.
+     */
+    protected void appendBatch(List<E> events) {
+        for (E event : events) {
+            append(event);
+        }
+    }
+
     /**
      * Set the name of this appender.
      */
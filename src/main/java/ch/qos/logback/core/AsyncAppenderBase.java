@@ -15,10 +15,17 @@ package ch.qos.logback.core;
 
 import ch.qos.logback.core.spi.AppenderAttachable;
 import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import ch.qos.logback.core.spi.AppenderMetrics;
+import ch.qos.logback.core.util.QueueType;
+import ch.qos.logback.core.util.RingBufferBlockingQueue;
+import ch.qos.logback.core.util.WaitStrategy;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This appender and derived classes, log events asynchronously.  In order to avoid loss of logging events, this
@@ -28,6 +35,14 @@ import java.util.concurrent.BlockingQueue;
  * This appender buffers events in a {@link BlockingQueue}. {@link Worker} thread created by this appender takes
  * events from the head of the queue, and dispatches them to the single appender attached to this appender.
  * <p/>
+ * <p>By default the queue is an {@link ArrayBlockingQueue}. Setting the <b>queueType</b> option to
+ * {@link QueueType#RING_BUFFER RING_BUFFER} replaces it with a lock-free {@link RingBufferBlockingQueue}, in which case
+ * the <b>waitStrategy</b> option determines how producers and the worker wait on a full or empty buffer.
+ * <p/>
+ * <p>The worker drains up to <b>maxBatchSize</b> events at a time, optionally waiting up to <b>lingerTime</b>
+ * milliseconds for a batch to fill up. Attached appenders implementing {@link BatchAppender} receive the whole batch
+ * in a single call.
+ * <p/>
  * <p>Please refer to the <a href="http://logback.qos.ch/manual/appenders.html#AsyncAppender">logback manual</a> for
  * further information about this appender.</p>
  *
@@ -53,6 +68,9 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
     int discardingThreshold = UNDEFINED;
     boolean neverBlock = false;
 
+    QueueType queueType = QueueType.ARRAY_BLOCKING;
+    WaitStrategy waitStrategy = WaitStrategy.PARK;
+
     Worker worker = new Worker();
 
     /**
@@ -63,6 +81,18 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
     public static final int DEFAULT_MAX_FLUSH_TIME = 1000;
     int maxFlushTime = DEFAULT_MAX_FLUSH_TIME;
 
+    /**
+     * The default maximum number of events handed over to the attached appender in one call.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    /**
+     * The time in milliseconds the worker waits for a batch to fill up. By default the worker does not wait and
+     * dispatches whatever is available.
+     */
+    int lingerTime = 0;
+
     /**
      * Is the eventObject passed as parameter discardable? The base class's implementation of this method always returns
      * 'false' but sub-classes may (and do) override this method.
@@ -98,7 +128,12 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
             addError("Invalid queue size [" + queueSize + "]");
             return;
         }
-        blockingQueue = new ArrayBlockingQueue<E>(queueSize);
+        if (maxBatchSize < 1) {
+            addError("Invalid max batch size [" + maxBatchSize + "]");
+            return;
+        }
+        blockingQueue = createBlockingQueue(queueSize);
+        addInfo("Using " + queueType + " queue of size " + queueSize);
 
         if (discardingThreshold == UNDEFINED)
             discardingThreshold = queueSize / 5;
@@ -110,6 +145,22 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
         worker.start();
     }
 
+    /**
+     * Create the queue used to buffer events according to the <b>queueType</b> option. Sub-classes may override this
+     * method in order to supply their own queue implementation.
+     *
+     * @param queueSize the capacity of the queue
+     * @return a new queue
+     */
+    protected BlockingQueue<E> createBlockingQueue(int queueSize) {
+        switch (queueType) {
+        case RING_BUFFER:
+            return new RingBufferBlockingQueue<E>(queueSize, waitStrategy);
+        default:
+            return new ArrayBlockingQueue<E>(queueSize);
+        }
+    }
+
     @Override
     public void stop() {
         if (!isStarted())
@@ -142,6 +193,7 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
     @Override
     protected void append(E eventObject) {
         if (isQueueBelowDiscardingThreshold() && isDiscardable(eventObject)) {
+            recordDiscard();
             return;
         }
         preprocess(eventObject);
@@ -154,7 +206,9 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
 
     private void put(E eventObject) {
         if (neverBlock) {
-            blockingQueue.offer(eventObject);
+            if (!blockingQueue.offer(eventObject)) {
+                recordDiscard();
+            }
         } else {
             try {
                 blockingQueue.put(eventObject);
@@ -166,6 +220,13 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
         }
     }
 
+    private void recordDiscard() {
+        AppenderMetrics metrics = getMetrics();
+        if (metrics != null) {
+            metrics.recordDiscard();
+        }
+    }
+
     public int getQueueSize() {
         return queueSize;
     }
@@ -190,6 +251,33 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
         this.maxFlushTime = maxFlushTime;
     }
 
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of events the worker drains from the queue and dispatches at once.
+     *
+     * @param maxBatchSize a strictly positive number, 1 dispatches events one by one
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getLingerTime() {
+        return lingerTime;
+    }
+
+    /**
+     * Sets the time in milliseconds the worker waits for more events once it has taken the first event of a
+     * batch. Larger values yield larger batches at the cost of latency.
+     *
+     * @param lingerTime time in milliseconds
+     */
+    public void setLingerTime(int lingerTime) {
+        this.lingerTime = lingerTime;
+    }
+
     /**
      * Returns the number of elements currently in the blocking queue.
      *
@@ -207,6 +295,28 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
         return neverBlock;
     }
 
+    public QueueType getQueueType() {
+        return queueType;
+    }
+
+    public void setQueueType(QueueType queueType) {
+        this.queueType = queueType;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Sets how threads wait on a full or empty buffer. Only taken into account when <b>queueType</b> is
+     * {@link QueueType#RING_BUFFER RING_BUFFER}.
+     *
+     * @param waitStrategy one of SPIN, YIELD or PARK
+     */
+    public void setWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
     /**
      * The remaining capacity available in the blocking queue.
      *
@@ -258,24 +368,57 @@ public class AsyncAppenderBase<E> extends UnsynchronizedAppenderBase<E> implemen
             AsyncAppenderBase<E> parent = AsyncAppenderBase.this;
             AppenderAttachableImpl<E> aai = parent.aai;
 
+            List<E> batch = new ArrayList<E>(parent.maxBatchSize);
+
             // loop while the parent is started
             while (parent.isStarted()) {
                 try {
-                    E e = parent.blockingQueue.take();
-                    aai.appendLoopOnAppenders(e);
+                    batch.add(parent.blockingQueue.take());
+                    fillBatch(batch);
                 } catch (InterruptedException ie) {
                     break;
                 }
+                dispatch(aai, batch);
             }
 
             addInfo("Worker thread will flush remaining events before exiting. ");
 
-            for (E e : parent.blockingQueue) {
-                aai.appendLoopOnAppenders(e);
-                parent.blockingQueue.remove(e);
-            }
+            do {
+                dispatch(aai, batch);
+            } while (parent.blockingQueue.drainTo(batch, parent.maxBatchSize) > 0);
 
             aai.detachAndStopAllAppenders();
         }
+
+        private void fillBatch(List<E> batch) throws InterruptedException {
+            AsyncAppenderBase<E> parent = AsyncAppenderBase.this;
+            int max = parent.maxBatchSize;
+            parent.blockingQueue.drainTo(batch, max - batch.size());
+            if (parent.lingerTime <= 0) {
+                return;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(parent.lingerTime);
+            while (batch.size() < max) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                E e = parent.blockingQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (e == null) {
+                    break;
+                }
+                batch.add(e);
+                parent.blockingQueue.drainTo(batch, max - batch.size());
+            }
+        }
+
+        private void dispatch(AppenderAttachableImpl<E> aai, List<E> batch) {
+            if (batch.size() == 1) {
+                aai.appendLoopOnAppenders(batch.get(0));
+            } else if (!batch.isEmpty()) {
+                aai.appendLoopOnAppenders(batch);
+            }
+            batch.clear();
+        }
     }
 }
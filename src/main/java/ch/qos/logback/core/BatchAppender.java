@@ -0,0 +1,36 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core;
+
+import java.util.List;
+
+/**
+ * An {@link Appender} able to process several events in one call, typically
+ * writing them under a single lock acquisition and with a single flush.
+ * 
+ * <p>{@link AsyncAppenderBase} hands the events it drains from its queue to
+ * attached appenders implementing this interface in batches.
+ *
+ * @param <E>
+ */
+public interface BatchAppender<E> extends Appender<E> {
+
+    /**
+     * Append the events passed as parameter, in order. Filters attached to the
+     * appender are consulted for each event.
+     * 
+     * @param events the events to append
+     */
+    void doAppendBatch(List<E> events) throws LogbackException;
+}
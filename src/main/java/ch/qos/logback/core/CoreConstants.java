@@ -86,6 +86,24 @@ public class CoreConstants {
      */
     public static final String RFA_FILENAME_PATTERN_COLLISION_MAP = "RFA_FILENAME_PATTERN_COLLISION_MAP";
 
+    /**
+     * The key used in locating the {@link ch.qos.logback.core.spi.AppenderMetricsRegistry}
+     * in context's object map.
+     */
+    public static final String APPENDER_METRICS_REGISTRY = "APPENDER_METRICS_REGISTRY";
+
+    /**
+     * The key used in locating the executor service shared by the compressors of
+     * a context in context's object map.
+     */
+    public static final String COMPRESSION_EXECUTOR_SERVICE = "COMPRESSION_EXECUTOR_SERVICE";
+
+    /**
+     * Number of threads of the executor service shared by the compressors of a
+     * context.
+     */
+    public static final int COMPRESSION_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+
     /**
      * By convention, we assume that the static method named "valueOf" taking
      * a string argument can restore a given object from its string
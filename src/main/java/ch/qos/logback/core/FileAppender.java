@@ -16,14 +16,24 @@ package ch.qos.logback.core;
 import static ch.qos.logback.core.CoreConstants.CODES_URL;
 import static ch.qos.logback.core.CoreConstants.MORE_INFO_PREFIX;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
 import ch.qos.logback.core.recovery.ResilientFileOutputStream;
+import ch.qos.logback.core.util.Duration;
+import ch.qos.logback.core.util.FileSize;
 import ch.qos.logback.core.util.FileUtil;
 
 /**
@@ -52,6 +62,29 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
 
     private boolean prudent = false;
 
+    static final long DEFAULT_PRUDENT_BATCH_INTERVAL = 100;
+
+    private boolean prudentBatching = false;
+    /**
+     * Events encoded but not yet written in prudent batching mode, guarded by
+     * the appender's lock.
+     */
+    private ByteArrayOutputStream prudentBatch;
+
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private FileSize bufferSize = new FileSize(DEFAULT_BUFFER_SIZE);
+    private boolean useFileChannel = false;
+    private Duration flushInterval;
+    private ScheduledFuture<?> flushFuture;
+
+    static final long DEFAULT_GROUP_COMMIT_INTERVAL = 10;
+
+    private boolean groupCommit = false;
+    private Duration groupCommitInterval = Duration.buildByMilliseconds(DEFAULT_GROUP_COMMIT_INTERVAL);
+    private FileSize groupCommitSize = new FileSize(FileSize.MB_COEFFICIENT);
+    private GroupCommitter groupCommitter;
+
     /**
      * The <b>File</b> property takes a string value which should be the name of
      * the file to append to.
@@ -129,6 +162,311 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
         }
         if (errors == 0) {
             super.start();
+            if (isStarted()) {
+                startPrudentBatching();
+                startPeriodicFlush();
+                startGroupCommit();
+            }
+        }
+    }
+
+    /**
+     * When a flush interval is set, events are no longer flushed one by one but
+     * periodically by a task run by the context's scheduled executor.
+     */
+    private void startPeriodicFlush() {
+        if (prudentBatch != null) {
+            Duration interval = flushInterval != null ? flushInterval : Duration.buildByMilliseconds(DEFAULT_PRUDENT_BATCH_INTERVAL);
+            schedulePeriodicFlush(interval);
+            return;
+        }
+        if (flushInterval == null) {
+            return;
+        }
+        if (prudent) {
+            addWarn("The flushInterval option is ignored in prudent mode as events must reach the file while it is locked.");
+            return;
+        }
+        if (!(encoder instanceof LayoutWrappingEncoder)) {
+            addWarn("The flushInterval option requires a LayoutWrappingEncoder. Ignoring it.");
+            return;
+        }
+        ((LayoutWrappingEncoder<E>) encoder).setImmediateFlush(false);
+        schedulePeriodicFlush(flushInterval);
+    }
+
+    private void schedulePeriodicFlush(Duration interval) {
+        long period = interval.getMilliseconds();
+        Runnable flushTask = new Runnable() {
+            public void run() {
+                flush();
+            }
+        };
+        flushFuture = context.getScheduledExecutorService().scheduleAtFixedRate(flushTask, period, period, TimeUnit.MILLISECONDS);
+        addInfo("Flushing [" + getFile() + "] every " + interval);
+    }
+
+    /**
+     * In prudent batching mode, events are encoded into a local buffer which is
+     * appended to the file, while holding the file lock, whenever it exceeds
+     * <b>bufferSize</b> bytes or at each flush.
+     */
+    private void startPrudentBatching() {
+        prudentBatch = null;
+        if (!prudentBatching) {
+            return;
+        }
+        if (!prudent) {
+            addWarn("The prudentBatching option only applies in prudent mode. Ignoring it.");
+            return;
+        }
+        if (!(encoder instanceof LayoutWrappingEncoder)) {
+            addWarn("The prudentBatching option requires a LayoutWrappingEncoder. Ignoring it.");
+            return;
+        }
+        prudentBatch = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, Math.max(1, bufferSize.getSize())));
+    }
+
+    /**
+     * Flush the events written so far to the file.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            OutputStream os = getOutputStream();
+            if (os == null) {
+                return;
+            }
+            if (prudentBatch != null) {
+                writePrudentBatch();
+            } else {
+                os.flush();
+            }
+        } catch (IOException e) {
+            addError("Failed to flush [" + getFile() + "]", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startGroupCommit() {
+        if (!groupCommit) {
+            return;
+        }
+        // the group committer flushes the events it syncs
+        if (encoder instanceof LayoutWrappingEncoder) {
+            ((LayoutWrappingEncoder<E>) encoder).setImmediateFlush(false);
+        }
+        groupCommitter = new GroupCommitter();
+        groupCommitter.setDaemon(true);
+        groupCommitter.setName("GroupCommitter-" + getName());
+        groupCommitter.start();
+        addInfo("Syncing [" + getFile() + "] every " + groupCommitInterval + " or " + groupCommitSize);
+    }
+
+    @Override
+    public void stop() {
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+            flushFuture = null;
+        }
+        if (groupCommitter != null) {
+            groupCommitter.halt();
+            groupCommitter = null;
+        }
+        super.stop();
+    }
+
+    @Override
+    protected void closeOutputStream() {
+        writePendingPrudentBatch();
+        super.closeOutputStream();
+    }
+
+    @Override
+    protected OutputStream replaceOutputStream(OutputStream newOutputStream) {
+        writePendingPrudentBatch();
+        return super.replaceOutputStream(newOutputStream);
+    }
+
+    /**
+     * Write the events buffered in prudent batching mode to the current file
+     * before it is closed or replaced, so that they do not end up in the next
+     * one.
+     */
+    private void writePendingPrudentBatch() {
+        if (prudentBatch != null && getOutputStream() != null) {
+            try {
+                writePrudentBatch();
+            } catch (IOException e) {
+                addError("Failed to write pending events to [" + getFile() + "]", e);
+            }
+        }
+    }
+
+    @Override
+    protected void subAppend(E event) {
+        super.subAppend(event);
+        awaitGroupCommit();
+    }
+
+    @Override
+    protected void subAppendBatch(List<E> events) {
+        super.subAppendBatch(events);
+        awaitGroupCommit();
+    }
+
+    private void awaitGroupCommit() {
+        GroupCommitter committer = this.groupCommitter;
+        if (committer != null) {
+            committer.await();
+        }
+    }
+
+    /**
+     * Syncs the file to the storage device on behalf of all the threads which
+     * wrote to it since the previous sync. Writers wait for the sync following
+     * their write, which is started every <b>groupCommitInterval</b> or as soon
+     * as <b>groupCommitSize</b> bytes were written since the previous one.
+     * 
+     * <p>
+     * Streams closed by the appender, for instance at rollover, are synced
+     * when closed.
+     */
+    class GroupCommitter extends Thread {
+
+        private final Object monitor = new Object();
+        // incremented by each sync while holding the appender's lock
+        private volatile long startedSyncs = 0;
+        // guarded by monitor
+        private long completedSyncs = 0;
+        private boolean syncRequested = false;
+        private boolean running = true;
+        private boolean finished = false;
+        // written while holding the appender's lock, read by writers as a hint
+        private volatile long lengthAtLastSync = -1;
+        private volatile OutputStream streamAtLastSync;
+
+        /**
+         * Wait until the bytes written by the calling thread are synced.
+         */
+        void await() {
+            // the sync after the one observed here starts once the caller's
+            // write completed, as the caller no longer holds the lock
+            long ticket = startedSyncs + 1;
+            boolean interrupted = false;
+            synchronized (monitor) {
+                if (!syncRequested && bytesSinceLastSync() >= groupCommitSize.getSize()) {
+                    syncRequested = true;
+                    monitor.notifyAll();
+                }
+                while (completedSyncs < ticket && !finished) {
+                    try {
+                        monitor.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private long bytesSinceLastSync() {
+            OutputStream os = getOutputStream();
+            if (!(os instanceof ResilientFileOutputStream) || os != streamAtLastSync) {
+                return 0;
+            }
+            return ((ResilientFileOutputStream) os).getLength() - lengthAtLastSync;
+        }
+
+        void halt() {
+            synchronized (monitor) {
+                running = false;
+                monitor.notifyAll();
+            }
+            try {
+                join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        public void run() {
+            long interval = groupCommitInterval.getMilliseconds();
+            while (true) {
+                boolean last;
+                synchronized (monitor) {
+                    if (running && !syncRequested) {
+                        try {
+                            monitor.wait(interval);
+                        } catch (InterruptedException e) {
+                            // sync and resume
+                        }
+                    }
+                    syncRequested = false;
+                    last = !running;
+                }
+                try {
+                    sync();
+                } catch (Throwable t) {
+                    // keep the committer alive, and release the writers
+                    // waiting for the failed sync
+                    addError("Failed to sync [" + getFile() + "]", t);
+                    releaseStartedSyncs();
+                }
+                if (last) {
+                    break;
+                }
+            }
+            synchronized (monitor) {
+                finished = true;
+                monitor.notifyAll();
+            }
+        }
+
+        private void sync() {
+            long sync;
+            FileChannel channel = null;
+            lock.lock();
+            try {
+                sync = startedSyncs + 1;
+                startedSyncs = sync;
+                OutputStream os = getOutputStream();
+                if (os instanceof ResilientFileOutputStream) {
+                    ResilientFileOutputStream resilientFos = (ResilientFileOutputStream) os;
+                    long length = resilientFos.getLength();
+                    if (resilientFos != streamAtLastSync || length != lengthAtLastSync) {
+                        resilientFos.flush();
+                        channel = resilientFos.getChannel();
+                        streamAtLastSync = resilientFos;
+                        lengthAtLastSync = length;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (channel != null) {
+                try {
+                    channel.force(false);
+                } catch (ClosedChannelException e) {
+                    // the stream was synced when closed
+                } catch (IOException e) {
+                    addError("Failed to sync [" + getFile() + "]", e);
+                }
+            }
+            synchronized (monitor) {
+                completedSyncs = sync;
+                monitor.notifyAll();
+            }
+        }
+
+        private void releaseStartedSyncs() {
+            synchronized (monitor) {
+                completedSyncs = startedSyncs;
+                monitor.notifyAll();
+            }
         }
     }
 
@@ -183,14 +521,113 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
                 addError("Failed to create parent directories for [" + file.getAbsolutePath() + "]");
             }
 
-            ResilientFileOutputStream resilientFos = new ResilientFileOutputStream(file, append);
-            resilientFos.setContext(context);
+            ResilientFileOutputStream resilientFos = newResilientFileOutputStream(file);
             setOutputStream(resilientFos);
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Open the given file according to the <b>append</b>, <b>bufferSize</b> and
+     * <b>useFileChannel</b> options.
+     */
+    protected ResilientFileOutputStream newResilientFileOutputStream(File file) throws FileNotFoundException {
+        int size = (int) Math.min(Integer.MAX_VALUE, Math.max(1, bufferSize.getSize()));
+        ResilientFileOutputStream resilientFos = new ResilientFileOutputStream(file, append, size, useFileChannel);
+        resilientFos.setContext(context);
+        resilientFos.setSyncOnClose(groupCommit);
+        return resilientFos;
+    }
+
+    public FileSize getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * The size of the buffer in front of the file. Default is 8KB.
+     * 
+     * @param bufferSize
+     */
+    public void setBufferSize(FileSize bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public boolean isUseFileChannel() {
+        return useFileChannel;
+    }
+
+    /**
+     * When true, events are collected in a direct buffer of <b>bufferSize</b>
+     * bytes written through the file's {@link FileChannel}, instead of a heap
+     * buffer written through a {@link java.io.FileOutputStream}. Default is
+     * false.
+     * 
+     * @param useFileChannel
+     */
+    public void setUseFileChannel(boolean useFileChannel) {
+        this.useFileChannel = useFileChannel;
+    }
+
+    public boolean isGroupCommit() {
+        return groupCommit;
+    }
+
+    /**
+     * When true, a thread appending an event waits until the event is synced to
+     * the storage device, as with {@link FileChannel#force(boolean)}. Syncs are
+     * shared by all the events written in between, see
+     * <b>groupCommitInterval</b> and <b>groupCommitSize</b>. Default is false.
+     * 
+     * @param groupCommit
+     */
+    public void setGroupCommit(boolean groupCommit) {
+        this.groupCommit = groupCommit;
+    }
+
+    public Duration getGroupCommitInterval() {
+        return groupCommitInterval;
+    }
+
+    /**
+     * The maximum time between two syncs in group commit mode. Default is 10
+     * milliseconds.
+     * 
+     * @param groupCommitInterval
+     */
+    public void setGroupCommitInterval(Duration groupCommitInterval) {
+        this.groupCommitInterval = groupCommitInterval;
+    }
+
+    public FileSize getGroupCommitSize() {
+        return groupCommitSize;
+    }
+
+    /**
+     * In group commit mode, a sync is started as soon as this many bytes were
+     * written since the previous one. Default is 1MB.
+     * 
+     * @param groupCommitSize
+     */
+    public void setGroupCommitSize(FileSize groupCommitSize) {
+        this.groupCommitSize = groupCommitSize;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * When set, the file is flushed at the given interval instead of after each
+     * event, which disables the encoder's <b>immediateFlush</b> option. Events
+     * written since the last flush may be lost if the application crashes.
+     * 
+     * @param flushInterval
+     */
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
     /**
      * @see #setPrudent(boolean)
      * 
@@ -210,11 +647,64 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
         this.prudent = prudent;
     }
 
+    public boolean isPrudentBatching() {
+        return prudentBatching;
+    }
+
+    /**
+     * In prudent mode, the file is locked for each event by default. When
+     * prudentBatching is true, events are buffered locally and the file is
+     * locked once per batch, when more than <b>bufferSize</b> bytes are
+     * buffered or every <b>flushInterval</b>, 100 milliseconds by default.
+     * Buffered events are lost if the application crashes.
+     * 
+     * @param prudentBatching
+     */
+    public void setPrudentBatching(boolean prudentBatching) {
+        this.prudentBatching = prudentBatching;
+    }
+
+    /**
+     * In prudent mode, each write must be performed while holding the file lock.
+     */
+    @Override
+    protected boolean canCombineWrites() {
+        return !prudent && super.canCombineWrites();
+    }
+
     public void setAppend(boolean append) {
         this.append = append;
     }
 
     private void safeWrite(E event) throws IOException {
+        safeWrite(event, null);
+    }
+
+    /**
+     * Write the events buffered in prudent batching mode while holding the file
+     * lock. The buffer is cleared even if writing fails so as not to grow
+     * without bounds.
+     */
+    private void writePrudentBatch() throws IOException {
+        if (prudentBatch.size() == 0) {
+            return;
+        }
+        try {
+            safeWrite(null, null);
+        } finally {
+            prudentBatch.reset();
+        }
+    }
+
+    private void bufferPrudentBatch(E event) throws IOException {
+        prudentBatch.write(((LayoutWrappingEncoder<E>) encoder).encode(event));
+    }
+
+    /**
+     * Write either a single event, a batch of events or, if both are null, the
+     * events buffered in prudent batching mode while holding the file lock.
+     */
+    private void safeWrite(E event, List<E> events) throws IOException {
         ResilientFileOutputStream resilientFOS = (ResilientFileOutputStream) getOutputStream();
         FileChannel fileChannel = resilientFOS.getChannel();
         if (fileChannel == null) {
@@ -232,7 +722,16 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
             if (size != position) {
                 fileChannel.position(size);
             }
-            super.writeOut(event);
+            if (event != null) {
+                super.writeOut(event);
+            } else if (events != null) {
+                // not writeOut(E), which is overridden to lock the file again
+                // and would fail with an OverlappingFileLockException
+                encodeOut(events);
+            } else {
+                prudentBatch.writeTo(resilientFOS);
+                resilientFOS.flush();
+            }
         } catch (IOException e) {
             // Mainly to catch FileLockInterruptionExceptions (see LOGBACK-875)
             resilientFOS.postIOFailure(e);
@@ -252,11 +751,32 @@ public class FileAppender<E> extends OutputStreamAppender<E> {
     @Override
     protected void writeOut(E event) throws IOException {
         //prudentĬΪprudentΪfalse:
-        if (prudent) {
+        if (prudentBatch != null) {
+            bufferPrudentBatch(event);
+            if (prudentBatch.size() >= bufferSize.getSize()) {
+                writePrudentBatch();
+            }
+        } else if (prudent) {
             safeWrite(event);
         } else {
             //øOutputStreamAppenderwriteOut
             super.writeOut(event);
         }
     }
+
+    @Override
+    protected void writeOut(List<E> events) throws IOException {
+        if (prudentBatch != null) {
+            for (E event : events) {
+                bufferPrudentBatch(event);
+            }
+            if (prudentBatch.size() >= bufferSize.getSize()) {
+                writePrudentBatch();
+            }
+        } else if (prudent) {
+            safeWrite(null, events);
+        } else {
+            super.writeOut(events);
+        }
+    }
 }
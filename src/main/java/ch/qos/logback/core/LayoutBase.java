@@ -32,6 +32,19 @@ abstract public class LayoutBase<E> extends ContextAwareBase implements Layout<E
         return this.context;
     }
 
+    /**
+     * Append the formatted event to <code>buf</code>. The default implementation
+     * appends the string returned by {@link #doLayout(Object)}. Layouts able to
+     * write directly into the buffer override this method so that no intermediate
+     * String is created.
+     *
+     * @param event the event to format
+     * @param buf the buffer to append to
+     */
+    public void doLayout(E event, StringBuilder buf) {
+        buf.append(doLayout(event));
+    }
+
     public void start() {
         started = true;
     }
@@ -0,0 +1,465 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.rolling.helper.FileNamePattern;
+import ch.qos.logback.core.spi.AppenderMetrics;
+import ch.qos.logback.core.util.FileSize;
+import ch.qos.logback.core.util.FileUtil;
+
+/**
+ * MappedFileAppender writes events into fixed-size segments of memory-mapped
+ * files. Each segment is pre-allocated and mapped when opened, after which
+ * writing an event amounts to claiming a region of the segment with a
+ * compare-and-set and copying the encoded bytes into it. No lock is held and
+ * no system call is made on the writing path, so that several threads may
+ * write concurrently.
+ * 
+ * <p>
+ * The next segment is created and mapped ahead of time on the context's
+ * executor, so that replacing a full segment only swaps a reference. The full
+ * segment is then forced to the storage device, unmapped and trimmed to the
+ * bytes actually written, also on the context's executor. Segments are named after the <b>fileNamePattern</b>
+ * option which must contain an integer token (%i) and may contain a date token
+ * (%d), as for {@link ch.qos.logback.core.rolling.RollingFileAppender}. The
+ * last segment is trimmed when the appender is stopped.
+ * 
+ * <p>
+ * The encoder must be a {@link LayoutWrappingEncoder} whose layout is
+ * thread-safe. The file header and footer of the layout are not written.
+ * Events are only guaranteed to have reached the disk once their segment is
+ * closed, at which point the mapping is forced to the storage device.
+ * 
+ * @param <E>
+ */
+public class MappedFileAppender<E> extends UnsynchronizedAppenderBase<E> {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 64 * FileSize.MB_COEFFICIENT;
+
+    protected Encoder<E> encoder;
+
+    String fileNamePatternStr;
+    FileNamePattern fileNamePattern;
+    FileSize segmentSize = new FileSize(DEFAULT_SEGMENT_SIZE);
+
+    /**
+     * The segment events are currently written to. It is only replaced while
+     * holding {@link #rolloverLock}.
+     */
+    private volatile Segment currentSegment;
+    private final Object rolloverLock = new Object();
+    // only accessed by the task opening the next segment, one at a time
+    private int segmentIndex;
+    // guarded by rolloverLock
+    private Future<Segment> nextSegment;
+    // guarded by rolloverLock
+    private final List<Future<?>> pendingCloses = new ArrayList<Future<?>>();
+
+    /**
+     * A memory-mapped file of fixed capacity. The position is claimed by
+     * writers using compare-and-set. A negative position means that the segment
+     * is closed, its value being -(end + 1) where end is the number of bytes
+     * claimed before closing.
+     */
+    static final class Segment {
+        final File file;
+        final RandomAccessFile raf;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        final AtomicInteger position = new AtomicInteger();
+        final AtomicInteger written = new AtomicInteger();
+
+        Segment(File file, int capacity) throws IOException {
+            this.file = file;
+            this.capacity = capacity;
+            this.raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(capacity);
+                this.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } catch (IOException e) {
+                raf.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Claim a region of len bytes.
+         * 
+         * @return the offset of the region, or -1 if the segment is closed or
+         *         too full, in which case it is closed
+         */
+        int claim(int len) {
+            while (true) {
+                int p = position.get();
+                if (p < 0) {
+                    return -1;
+                }
+                if (p + len > capacity || p + len < 0) {
+                    if (position.compareAndSet(p, -p - 1)) {
+                        return -1;
+                    }
+                } else if (position.compareAndSet(p, p + len)) {
+                    return p;
+                }
+            }
+        }
+
+        void write(int offset, byte[] bytes) {
+            // each writer uses its own view of the buffer, whose position it
+            // may change
+            ByteBuffer dup = buffer.duplicate();
+            ((Buffer) dup).position(offset);
+            dup.put(bytes);
+            written.addAndGet(bytes.length);
+        }
+
+        /**
+         * Close the segment to further claims and wait for writers which claimed
+         * a region to complete. Then force the bytes written to the storage
+         * device, release the mapping and truncate the file to the bytes
+         * written. A file which is still mapped cannot be truncated on some
+         * platforms.
+         */
+        void close() throws IOException {
+            int p;
+            do {
+                p = position.get();
+            } while (p >= 0 && !position.compareAndSet(p, -p - 1));
+            int end = -position.get() - 1;
+            while (written.get() < end) {
+                Thread.yield();
+            }
+            try {
+                buffer.force();
+                unmap(buffer);
+                raf.setLength(end);
+            } finally {
+                raf.close();
+            }
+        }
+    }
+
+    /**
+     * Release the mapping of the buffer without waiting for it to be garbage
+     * collected. There is no public API for this, it is done reflectively and
+     * is skipped if the JVM does not allow it. The buffer must not be accessed
+     * afterwards.
+     */
+    static void unmap(MappedByteBuffer buffer) {
+        try {
+            // Java 9 and later
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (Exception e) {
+            // fall through
+        }
+        try {
+            // Java 8 and earlier
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        } catch (Exception e) {
+            // the mapping is released when the buffer is garbage collected
+        }
+    }
+
+    @Override
+    public void start() {
+        int errors = 0;
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            errors++;
+        } else if (!(encoder instanceof LayoutWrappingEncoder)) {
+            addError("The encoder of the appender named [" + name + "] must be a LayoutWrappingEncoder.");
+            errors++;
+        }
+        if (fileNamePatternStr == null) {
+            addError("The \"FileNamePattern\" property must be set for the appender named [" + name + "].");
+            errors++;
+        } else {
+            fileNamePattern = new FileNamePattern(fileNamePatternStr, context);
+            if (fileNamePattern.getIntegerTokenConverter() == null) {
+                addError("FileNamePattern [" + fileNamePatternStr + "] does not contain a valid integer token (%i)");
+                errors++;
+            }
+        }
+        if (segmentSize.getSize() < 1 || segmentSize.getSize() > Integer.MAX_VALUE) {
+            addError("SegmentSize must be between 1 byte and 2GB, was [" + segmentSize + "]");
+            errors++;
+        }
+        if (errors == 0) {
+            segmentIndex = 0;
+            try {
+                currentSegment = openNextSegment();
+            } catch (IOException e) {
+                addError("Failed to open the first segment for the appender named [" + name + "].", e);
+                return;
+            }
+            synchronized (rolloverLock) {
+                prepareNextSegment();
+            }
+            super.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        synchronized (rolloverLock) {
+            Segment segment = currentSegment;
+            currentSegment = null;
+            if (segment != null) {
+                closeSegment(segment);
+            }
+            discardNextSegment();
+            for (Future<?> close : pendingCloses) {
+                awaitQuietly(close);
+            }
+            pendingCloses.clear();
+        }
+    }
+
+    @Override
+    protected void append(E eventObject) {
+        if (!isStarted()) {
+            return;
+        }
+        byte[] bytes = ((LayoutWrappingEncoder<E>) encoder).encode(eventObject);
+        if (bytes.length > segmentSize.getSize()) {
+            addWarn("Discarding an event of " + bytes.length + " bytes which does not fit in a segment.");
+            AppenderMetrics metrics = getMetrics();
+            if (metrics != null) {
+                metrics.recordDiscard();
+            }
+            return;
+        }
+        while (true) {
+            Segment segment = currentSegment;
+            if (segment == null) {
+                // the appender was stopped concurrently
+                return;
+            }
+            int offset = segment.claim(bytes.length);
+            if (offset >= 0) {
+                segment.write(offset, bytes);
+                AppenderMetrics metrics = getMetrics();
+                if (metrics != null) {
+                    metrics.getBytesWritten().add(bytes.length);
+                }
+                return;
+            }
+            rollover(segment);
+        }
+    }
+
+    /**
+     * Replace the given full segment by the one prepared ahead of time, unless
+     * another thread already did. The full segment is closed in the
+     * background.
+     */
+    private void rollover(final Segment full) {
+        synchronized (rolloverLock) {
+            if (currentSegment != full) {
+                return;
+            }
+            Segment next;
+            try {
+                next = takeNextSegment();
+            } catch (IOException e) {
+                addError("Failed to open a new segment for the appender named [" + name + "]. Stopping it.", e);
+                currentSegment = null;
+                closeSegment(full);
+                started = false;
+                return;
+            }
+            currentSegment = next;
+            prepareNextSegment();
+            try {
+                pendingCloses.add(context.getScheduledExecutorService().submit(new Runnable() {
+                    public void run() {
+                        closeSegment(full);
+                    }
+                }));
+            } catch (RejectedExecutionException e) {
+                closeSegment(full);
+            }
+            for (Iterator<Future<?>> i = pendingCloses.iterator(); i.hasNext();) {
+                if (i.next().isDone()) {
+                    i.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start opening the next segment on the context's executor. Must be called
+     * while holding {@link #rolloverLock}.
+     */
+    private void prepareNextSegment() {
+        try {
+            nextSegment = context.getScheduledExecutorService().submit(new Callable<Segment>() {
+                public Segment call() throws IOException {
+                    return openNextSegment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the segment will be opened when needed
+            nextSegment = null;
+        }
+    }
+
+    /**
+     * Returns the segment prepared ahead of time, waiting for it if need be.
+     * Must be called while holding {@link #rolloverLock}.
+     */
+    private Segment takeNextSegment() throws IOException {
+        Future<Segment> future = nextSegment;
+        nextSegment = null;
+        if (future == null) {
+            return openNextSegment();
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to open segment", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while opening segment", e);
+        }
+    }
+
+    /**
+     * Close and delete the segment prepared ahead of time, which was never
+     * written to. Must be called while holding {@link #rolloverLock}.
+     */
+    private void discardNextSegment() {
+        if (nextSegment == null) {
+            return;
+        }
+        Segment unused;
+        try {
+            unused = takeNextSegment();
+        } catch (IOException e) {
+            return;
+        }
+        closeSegment(unused);
+        if (!unused.file.delete()) {
+            addWarn("Failed to delete unused segment [" + unused.file + "]");
+        }
+    }
+
+    private void awaitQuietly(Future<?> future) {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            addError("Failed to close a segment", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeSegment(Segment segment) {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            addError("Failed to close segment [" + segment.file + "]", e);
+        }
+    }
+
+    /**
+     * Open the segment with the lowest index not in use yet.
+     */
+    private Segment openNextSegment() throws IOException {
+        File file;
+        do {
+            file = new File(fileNamePattern.convertMultipleArguments(new Date(), segmentIndex++));
+        } while (file.exists());
+        FileUtil.createMissingParentDirectories(file);
+        addInfo("Opening segment [" + file + "]");
+        return new Segment(file, (int) segmentSize.getSize());
+    }
+
+    public Encoder<E> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(Encoder<E> encoder) {
+        this.encoder = encoder;
+    }
+
+    public String getFileNamePattern() {
+        return fileNamePatternStr;
+    }
+
+    public void setFileNamePattern(String fileNamePatternStr) {
+        this.fileNamePatternStr = fileNamePatternStr;
+    }
+
+    public FileSize getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * The size of each segment, that is the size of the files before they are
+     * trimmed. Default is 64MB, the maximum is 2GB.
+     * 
+     * @param segmentSize
+     */
+    public void setSegmentSize(FileSize segmentSize) {
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * The file events are currently written to.
+     */
+    public String getFile() {
+        Segment segment = currentSegment;
+        return segment == null ? null : segment.file.getPath();
+    }
+}
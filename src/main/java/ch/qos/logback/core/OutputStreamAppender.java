@@ -17,12 +17,19 @@ import static ch.qos.logback.core.CoreConstants.CODES_URL;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.locks.ReentrantLock;
 
 import ch.qos.logback.core.encoder.Encoder;
 import ch.qos.logback.core.encoder.LayoutWrappingEncoder;
+import ch.qos.logback.core.spi.AppenderMetrics;
 import ch.qos.logback.core.spi.DeferredProcessingAware;
 import ch.qos.logback.core.status.ErrorStatus;
+import ch.qos.logback.core.util.CountingOutputStream;
+import ch.qos.logback.core.util.WriteMode;
 
 /**
  * OutputStreamAppender appends events to a {@link OutputStream}. This class
@@ -42,15 +49,55 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
     protected Encoder<E> encoder;
 
     /**
-     * All synchronization in this class is done via the lock object.
+     * All synchronization in this class is done via the lock object. The lock is
+     * fair unless the <b>writeMode</b> option says otherwise, in which case it
+     * is replaced by a non-fair one in {@link #start()}, before any event is
+     * appended.
      */
-    protected final ReentrantLock lock = new ReentrantLock(true);
+    protected ReentrantLock lock = new ReentrantLock(true);
 
     /**
      * This is the {@link OutputStream outputStream} where output will be written.
      */
     private OutputStream outputStream;
 
+    /**
+     * The stream handed to the encoder, possibly wrapping {@link #outputStream}.
+     */
+    private OutputStream encoderOutputStream;
+
+    static final int COMBINING_BUFFER_SIZE = 32 * 1024;
+    /**
+     * The maximum number of events written by a thread on behalf of others, so
+     * that no thread is held indefinitely under sustained load.
+     */
+    static final int MAX_COMBINED_WRITES = 1024;
+
+    private WriteMode writeMode = WriteMode.FAIR_LOCK;
+
+    /**
+     * Non null once started in {@link WriteMode#COMBINING} mode.
+     */
+    private LayoutWrappingEncoder<E> combiningEncoder;
+    private final ConcurrentLinkedQueue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<PendingWrite>();
+    // guarded by lock
+    private byte[] combiningBuffer;
+    // guarded by lock
+    private final List<PendingWrite> combinedWrites = new ArrayList<PendingWrite>();
+
+    /**
+     * An encoded event waiting to be written in {@link WriteMode#COMBINING} mode.
+     */
+    static final class PendingWrite {
+        final byte[] bytes;
+        // set under the lock once the bytes reached the stream, read without it
+        volatile boolean written;
+
+        PendingWrite(byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
     /**
      * The underlying output stream used by this appender.
      * 
@@ -77,10 +124,56 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         }
         // only error free appenders should be activated
         if (errors == 0) {
+            boolean fair = writeMode == WriteMode.FAIR_LOCK;
+            if (lock.isFair() != fair) {
+                lock = new ReentrantLock(fair);
+            }
+            startCombining();
             super.start();
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private void startCombining() {
+        combiningEncoder = null;
+        if (writeMode != WriteMode.COMBINING) {
+            return;
+        }
+        if (canCombineWrites()) {
+            combiningEncoder = (LayoutWrappingEncoder<E>) encoder;
+            combiningBuffer = new byte[COMBINING_BUFFER_SIZE];
+        } else {
+            addWarn("Write mode " + writeMode + " is not supported by appender named [" + name + "]. Writing events under lock instead.");
+        }
+    }
+
+    /**
+     * Whether writes of concurrent threads can be combined. This requires a
+     * {@link LayoutWrappingEncoder} able to encode events outside the lock.
+     */
+    protected boolean canCombineWrites() {
+        return encoder instanceof LayoutWrappingEncoder;
+    }
+
+    public WriteMode getWriteMode() {
+        return writeMode;
+    }
+
+    /**
+     * Sets how the writes of concurrent threads are serialized, one of
+     * FAIR_LOCK (the default), NON_FAIR_LOCK or COMBINING. This option must be set
+     * before the appender is started.
+     *
+     * @param writeMode
+     */
+    public void setWriteMode(WriteMode writeMode) {
+        if (isStarted()) {
+            addWarn("The write mode of appender named [" + name + "] cannot be changed once started.");
+            return;
+        }
+        this.writeMode = writeMode;
+    }
+
     public void setLayout(Layout<E> layout) {
         addWarn("This appender no longer admits a layout as a sub-component, set an encoder instead.");
         addWarn("To ensure compatibility, wrapping your layout in LayoutWrappingEncoder.");
@@ -102,6 +195,14 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         subAppend(eventObject);
     }
 
+    @Override
+    protected void appendBatch(List<E> events) {
+        if (!isStarted()) {
+            return;
+        }
+        subAppendBatch(events);
+    }
+
     /**
      * Stop this appender instance. The underlying stream or writer is also
      * closed.
@@ -125,20 +226,53 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
     protected void closeOutputStream() {
         if (this.outputStream != null) {
             try {
+                if (combiningEncoder != null) {
+                    writePendingBytes();
+                }
                 // before closing we have to output out layout's footer
                 encoderClose();
                 this.outputStream.close();
                 this.outputStream = null;
+                this.encoderOutputStream = null;
             } catch (IOException e) {
                 addStatus(new ErrorStatus("Could not close output stream for OutputStreamAppender.", this, e));
             }
         }
     }
 
+    /**
+     * Replace the output stream without closing the current one, which is
+     * returned to the caller. The layout's footer is written to the current
+     * stream and its header to the new one. Must be called while holding the
+     * lock.
+     *
+     * @param newOutputStream
+     *          An already opened OutputStream.
+     * @return the replaced stream, possibly null
+     */
+    protected OutputStream replaceOutputStream(OutputStream newOutputStream) {
+        OutputStream previous = this.outputStream;
+        if (previous != null) {
+            if (combiningEncoder != null) {
+                try {
+                    writePendingBytes();
+                } catch (IOException e) {
+                    addStatus(new ErrorStatus("Failed to write pending events for appender named [" + name + "].", this, e));
+                }
+            }
+            encoderClose();
+        }
+        this.outputStream = newOutputStream;
+        encoderInit();
+        return previous;
+    }
+
     void encoderInit() {
         if (encoder != null && this.outputStream != null) {
             try {
-                encoder.init(outputStream);
+                AppenderMetrics metrics = getMetrics();
+                encoderOutputStream = metrics == null ? outputStream : new CountingOutputStream(outputStream, metrics.getBytesWritten());
+                encoder.init(encoderOutputStream);
             } catch (IOException ioe) {
                 this.started = false;
                 addStatus(new ErrorStatus("Failed to initialize encoder for appender named [" + name + "].", this, ioe));
@@ -191,6 +325,34 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         this.encoder.doEncode(event);
     }
 
+    /**
+     * Write a batch of events. When the encoder is a {@link LayoutWrappingEncoder}, the
+     * underlying stream is flushed once for the whole batch.
+     */
+    protected void writeOut(List<E> events) throws IOException {
+        if (encoder instanceof LayoutWrappingEncoder) {
+            encodeOut(events);
+        } else {
+            for (E event : events) {
+                writeOut(event);
+            }
+        }
+    }
+
+    /**
+     * Encode a batch of events straight to the stream, without going through a
+     * possibly overridden {@link #writeOut(Object)}.
+     */
+    void encodeOut(List<E> events) throws IOException {
+        if (encoder instanceof LayoutWrappingEncoder) {
+            ((LayoutWrappingEncoder<E>) encoder).doEncodeBatch(events);
+        } else {
+            for (E event : events) {
+                encoder.doEncode(event);
+            }
+        }
+    }
+
     /**
      * Actual writing occurs here.
      * <p>
@@ -207,12 +369,26 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
             if (event instanceof DeferredProcessingAware) {
                 ((DeferredProcessingAware) event).prepareForDeferredProcessing();
             }
+            if (combiningEncoder != null) {
+                combineWrites(Collections.singletonList(event));
+                return;
+            }
+            final AppenderMetrics metrics = getMetrics();
+            long lockStart = metrics == null ? 0 : System.nanoTime();
             //־ӡȼ
             lock.lock();
             try {
                 //־ӡRollingFileAppenderFileAppenderwriteOut
                 //ConsoleAppenderֱӵOutputStreamAppenderwriteOut
+                long writeStart = 0;
+                if (metrics != null) {
+                    writeStart = System.nanoTime();
+                    metrics.recordLockWait(writeStart - lockStart);
+                }
                 writeOut(event);
+                if (metrics != null) {
+                    metrics.recordWrite(System.nanoTime() - writeStart);
+                }
             } finally {
                 //ͷ
                 lock.unlock();
@@ -223,6 +399,141 @@ public class OutputStreamAppender<E> extends UnsynchronizedAppenderBase<E> {
         }
     }
 
+    /**
+     * Write a batch of events while holding the lock only once.
+     */
+    protected void subAppendBatch(List<E> events) {
+        if (!isStarted()) {
+            return;
+        }
+        try {
+            for (E event : events) {
+                if (event instanceof DeferredProcessingAware) {
+                    ((DeferredProcessingAware) event).prepareForDeferredProcessing();
+                }
+            }
+            if (combiningEncoder != null) {
+                combineWrites(events);
+                return;
+            }
+            final AppenderMetrics metrics = getMetrics();
+            long lockStart = metrics == null ? 0 : System.nanoTime();
+            lock.lock();
+            try {
+                long writeStart = 0;
+                if (metrics != null) {
+                    writeStart = System.nanoTime();
+                    metrics.recordLockWait(writeStart - lockStart);
+                }
+                writeOut(events);
+                if (metrics != null) {
+                    metrics.recordWrite(System.nanoTime() - writeStart);
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (IOException ioe) {
+            this.started = false;
+            addStatus(new ErrorStatus("IO failure in appender", this, ioe));
+        }
+    }
+
+    /**
+     * Encode the events outside the lock and queue the resulting bytes. Then,
+     * once the lock is acquired, write them unless another thread already did
+     * so while writing its own. A thread whose bytes were written by another
+     * one returns without taking the lock.
+     */
+    private void combineWrites(List<E> events) throws IOException {
+        final AppenderMetrics metrics = getMetrics();
+        long encodeStart = metrics == null ? 0 : System.nanoTime();
+        PendingWrite last = null;
+        for (E event : events) {
+            last = new PendingWrite(combiningEncoder.encode(event));
+            pendingWrites.offer(last);
+        }
+        if (last == null || last.written) {
+            return;
+        }
+        long lockStart = metrics == null ? 0 : System.nanoTime();
+        lock.lock();
+        try {
+            long writeStart = 0;
+            if (metrics != null) {
+                writeStart = System.nanoTime();
+                metrics.recordLockWait(writeStart - lockStart);
+            }
+            if (!last.written) {
+                writePendingBytes(last);
+            }
+            if (metrics != null) {
+                metrics.recordWrite(lockStart - encodeStart + System.nanoTime() - writeStart);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write all pending bytes. Must be called while holding the lock.
+     */
+    private void writePendingBytes() throws IOException {
+        writePendingBytes(null);
+    }
+
+    /**
+     * Write the pending bytes up to and including <code>last</code>, then those
+     * queued by other threads in the meantime, up to {@link #MAX_COMBINED_WRITES}
+     * of them. Bytes are gathered in a buffer so that they reach the stream in as
+     * few calls as possible. Must be called while holding the lock.
+     */
+    private void writePendingBytes(PendingWrite last) throws IOException {
+        OutputStream os = encoderOutputStream;
+        byte[] buf = combiningBuffer;
+        int len = 0;
+        int count = 0;
+        boolean lastPolled = false;
+        PendingWrite pw;
+        try {
+            while ((last == null || !lastPolled || count < MAX_COMBINED_WRITES) && (pw = pendingWrites.poll()) != null) {
+                combinedWrites.add(pw);
+                lastPolled |= pw == last;
+                count++;
+                if (os == null) {
+                    // the stream is closed, the event is lost
+                    continue;
+                }
+                byte[] bytes = pw.bytes;
+                if (len + bytes.length > buf.length) {
+                    if (len > 0) {
+                        os.write(buf, 0, len);
+                        len = 0;
+                    }
+                    if (bytes.length > buf.length) {
+                        os.write(bytes);
+                        continue;
+                    }
+                }
+                System.arraycopy(bytes, 0, buf, len, bytes.length);
+                len += bytes.length;
+            }
+            if (os != null && count > 0) {
+                if (len > 0) {
+                    os.write(buf, 0, len);
+                }
+                if (combiningEncoder.isImmediateFlush()) {
+                    os.flush();
+                }
+            }
+        } finally {
+            // written or lost, in both cases the owners need not wait any longer
+            for (int i = 0; i < combinedWrites.size(); i++) {
+                combinedWrites.get(i).written = true;
+            }
+            combinedWrites.clear();
+        }
+    }
+
     public Encoder<E> getEncoder() {
         return encoder;
     }
@@ -13,9 +13,12 @@
  */
 package ch.qos.logback.core;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.AppenderMetrics;
+import ch.qos.logback.core.spi.AppenderMetricsRegistry;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.spi.FilterAttachableImpl;
 import ch.qos.logback.core.spi.FilterReply;
@@ -28,7 +31,7 @@ import ch.qos.logback.core.status.WarnStatus;
  * @author Ceki G&uuml;lc&uuml;
  * @author Ralph Goers
  */
-abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase implements Appender<E> {
+abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase implements BatchAppender<E> {
 
     protected boolean started = false;
 
@@ -48,6 +51,13 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
 
     private FilterAttachableImpl<E> fai = new FilterAttachableImpl<E>();
 
+    /**
+     * Null unless metrics are enabled.
+     */
+    private AppenderMetrics metrics;
+
+    private AppenderMetricsRegistry metricsRegistry;
+
     public String getName() {
         return name;
     }
@@ -57,8 +67,47 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
 
     static final int ALLOWED_REPEATS = 3;
 
+    /**
+     * Whether a sub-class overrides {@link #doAppend(Object)}, which then has
+     * to see every event appended in a batch.
+     */
+    private static final ClassValue<Boolean> OVERRIDES_DO_APPEND = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("doAppend", Object.class).getDeclaringClass() != UnsynchronizedAppenderBase.class;
+            } catch (NoSuchMethodException e) {
+                return Boolean.TRUE;
+            }
+        }
+    };
+
     //RollingFileAppender ConsoleAppender
     public void doAppend(E eventObject) {
+        doAppend(eventObject, null);
+    }
+
+    /**
+     * Append the events which pass the filter chain with a single call to
+     * {@link #appendBatch(List)}. If a sub-class overrides
+     * {@link #doAppend(Object)}, the events are handed to it one by one instead.
+     */
+    public void doAppendBatch(List<E> events) {
+        if (OVERRIDES_DO_APPEND.get(getClass())) {
+            for (E event : events) {
+                doAppend(event);
+            }
+            return;
+        }
+        doAppend(null, events);
+    }
+
+    /**
+     * Append either a single event or, if <code>events</code> is not null, a
+     * batch of events, applying the guard, started check and filter chain shared
+     * by {@link #doAppend(Object)} and {@link #doAppendBatch(List)}.
+     */
+    private void doAppend(E eventObject, List<E> events) {
         //guarḏ߳رӸöлȡ洢ֵǷΪtrue;
         if (Boolean.TRUE.equals(guard.get())) {
             return;
@@ -74,11 +123,33 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
             }
             //ȡAppenderϵ ڹͽеã
             //FilterReplyˣDENY(ܾ־¼), NEUTRAL(ͨ־¼)ACCEPT(һfilter)
-            if (getFilterChainDecision(eventObject) == FilterReply.DENY) {
-                return;
+            List<E> accepted = null;
+            if (events == null) {
+                if (getFilterChainDecision(eventObject) == FilterReply.DENY) {
+                    return;
+                }
+            } else {
+                accepted = new ArrayList<E>(events.size());
+                for (E event : events) {
+                    if (getFilterChainDecision(event) != FilterReply.DENY) {
+                        accepted.add(event);
+                    }
+                }
+                if (accepted.isEmpty()) {
+                    return;
+                }
             }
             //RollingFileAppender ConsoleAppenderOutputStreamAppenderappend
-            this.append(eventObject);
+            final AppenderMetrics metrics = this.metrics;
+            long start = metrics == null ? 0 : System.nanoTime();
+            if (accepted == null) {
+                this.append(eventObject);
+            } else {
+                this.appendBatch(accepted);
+            }
+            if (metrics != null) {
+                metrics.recordAppend(accepted == null ? 1 : accepted.size(), System.nanoTime() - start);
+            }
         } catch (Exception e) {
             if (exceptionCount++ < ALLOWED_REPEATS) {
                 addError("Appender [" + name + "] failed to append.", e);
@@ -90,6 +161,17 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
 
     abstract protected void append(E eventObject);
 
+    /**
+     * Append the events which passed the filter chain. The default implementation
+     * calls {@link #append(Object)} for each event. Sub-classes able to write a whole
+     * batch more efficiently should override this method.
+     */
+    protected void appendBatch(List<E> events) {
+        for (E event : events) {
+            append(event);
+        }
+    }
+
     /**
      * Set the name of this appender.
      */
@@ -99,10 +181,45 @@ abstract public class UnsynchronizedAppenderBase<E> extends ContextAwareBase imp
 
     public void start() {
         started = true;
+        if (metrics != null && context != null) {
+            metricsRegistry = AppenderMetricsRegistry.getRegistry(context);
+            metricsRegistry.register(metrics);
+        }
     }
 
     public void stop() {
         started = false;
+        if (metricsRegistry != null) {
+            metricsRegistry.unregister(metrics);
+            metricsRegistry = null;
+        }
+    }
+
+    /**
+     * Whether appended events, append time and, depending on the appender, other
+     * statistics are collected. Statistics of started appenders are available from
+     * the context's {@link AppenderMetricsRegistry}. Disabled by default.
+     */
+    public void setMetricsEnabled(boolean metricsEnabled) {
+        if (metricsEnabled == (metrics != null)) {
+            return;
+        }
+        if (isStarted()) {
+            addWarn("Metrics of appender [" + name + "] cannot be enabled or disabled once started.");
+            return;
+        }
+        this.metrics = metricsEnabled ? new AppenderMetrics(this) : null;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metrics != null;
+    }
+
+    /**
+     * The statistics of this appender, or null if metrics are not enabled.
+     */
+    public AppenderMetrics getMetrics() {
+        return metrics;
     }
 
     public boolean isStarted() {
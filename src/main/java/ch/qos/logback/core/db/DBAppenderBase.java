@@ -20,6 +20,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 import ch.qos.logback.core.UnsynchronizedAppenderBase;
 import ch.qos.logback.core.db.dialect.DBUtil;
@@ -87,17 +88,7 @@ public abstract class DBAppenderBase<E> extends UnsynchronizedAppenderBase<E> {
         try {
             connection = connectionSource.getConnection();
             connection.setAutoCommit(false);
-
-            if (cnxSupportsGetGeneratedKeys) {
-                String EVENT_ID_COL_NAME = "EVENT_ID";
-                // see
-                if (connectionSource.getSQLDialectCode() == SQLDialectCode.POSTGRES_DIALECT) {
-                    EVENT_ID_COL_NAME = EVENT_ID_COL_NAME.toLowerCase();
-                }
-                insertStatement = connection.prepareStatement(getInsertSQL(), new String[] { EVENT_ID_COL_NAME });
-            } else {
-                insertStatement = connection.prepareStatement(getInsertSQL());
-            }
+            insertStatement = prepareInsertStatement(connection);
 
             long eventId;
             // inserting an event and getting the result must be exclusive
@@ -116,6 +107,72 @@ public abstract class DBAppenderBase<E> extends UnsynchronizedAppenderBase<E> {
         }
     }
 
+    /**
+     * Insert all events of the batch using a single connection, prepared statement
+     * and transaction. Should the transaction fail, it is rolled back and the
+     * events are appended one by one, so that a single faulty event does not
+     * cause the whole batch to be lost.
+     */
+    @Override
+    protected void appendBatch(List<E> events) {
+        Connection connection = null;
+        PreparedStatement insertStatement = null;
+        boolean failed = false;
+        try {
+            connection = connectionSource.getConnection();
+            connection.setAutoCommit(false);
+            insertStatement = prepareInsertStatement(connection);
+
+            for (E eventObject : events) {
+                long eventId;
+                // inserting an event and getting the result must be exclusive
+                synchronized (this) {
+                    subAppend(eventObject, connection, insertStatement);
+                    eventId = selectEventId(insertStatement, connection);
+                }
+                secondarySubAppend(eventObject, connection, eventId);
+            }
+
+            connection.commit();
+        } catch (Throwable sqle) {
+            addWarn("problem appending " + events.size() + " events in one transaction, appending them one by one", sqle);
+            failed = true;
+            rollback(connection);
+        } finally {
+            DBHelper.closeStatement(insertStatement);
+            DBHelper.closeConnection(connection);
+        }
+        if (failed) {
+            for (E eventObject : events) {
+                append(eventObject);
+            }
+        }
+    }
+
+    private void rollback(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            addWarn("Failed to roll back the transaction", e);
+        }
+    }
+
+    private PreparedStatement prepareInsertStatement(Connection connection) throws SQLException {
+        if (cnxSupportsGetGeneratedKeys) {
+            String EVENT_ID_COL_NAME = "EVENT_ID";
+            // see
+            if (connectionSource.getSQLDialectCode() == SQLDialectCode.POSTGRES_DIALECT) {
+                EVENT_ID_COL_NAME = EVENT_ID_COL_NAME.toLowerCase();
+            }
+            return connection.prepareStatement(getInsertSQL(), new String[] { EVENT_ID_COL_NAME });
+        } else {
+            return connection.prepareStatement(getInsertSQL());
+        }
+    }
+
     protected abstract void subAppend(E eventObject, Connection connection, PreparedStatement statement) throws Throwable;
 
     protected abstract void secondarySubAppend(E eventObject, Connection connection, long eventId) throws Throwable;
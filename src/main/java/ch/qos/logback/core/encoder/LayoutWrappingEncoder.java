@@ -16,10 +16,19 @@ package ch.qos.logback.core.encoder;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+import java.util.List;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.LayoutBase;
 
 public class LayoutWrappingEncoder<E> extends EncoderBase<E> {
 
@@ -36,6 +45,24 @@ public class LayoutWrappingEncoder<E> extends EncoderBase<E> {
 
     private boolean immediateFlush = true;
 
+    static final int INITIAL_BUFFER_SIZE = 256;
+    static final int BYTE_BUFFER_SIZE = 8192;
+    /**
+     * Buffers grown beyond this size by an unusually large event are released
+     * once the event is written.
+     */
+    static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    // The buffers below are reused from one event to the next. This is safe
+    // because the owning appender calls doEncode while holding its lock.
+    private StringBuilder layoutBuffer = new StringBuilder(INITIAL_BUFFER_SIZE);
+    private char[] charArray = new char[INITIAL_BUFFER_SIZE];
+    private CharBuffer charBuffer = CharBuffer.wrap(charArray);
+    private ByteBuffer byteBuffer = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+    private CharsetEncoder charsetEncoder;
+    // used by encode(E), which may be invoked by several threads concurrently
+    private ThreadLocal<CharsetEncoder> threadCharsetEncoder = newThreadCharsetEncoder();
+
     /**
      * Sets the immediateFlush option. The default value for immediateFlush is 'true'. If set to true,
      * the doEncode() method will immediately flush the underlying OutputStream. Although immediate flushing
@@ -75,6 +102,8 @@ public class LayoutWrappingEncoder<E> extends EncoderBase<E> {
      */
     public void setCharset(Charset charset) {
         this.charset = charset;
+        this.charsetEncoder = null;
+        this.threadCharsetEncoder = newThreadCharsetEncoder();
     }
 
     public void init(OutputStream os) throws IOException {
@@ -129,15 +158,151 @@ public class LayoutWrappingEncoder<E> extends EncoderBase<E> {
 
     public void doEncode(E event) throws IOException {
         //Ҫ־Ϣ
-        String txt = layout.doLayout(event);
         //RollingFileAppenderʹResilientFileOutputStream־ӡʵʵõOutputStreamķ
         //ConsoleAppenderʹõConsoleTargetö־ʵʾǵ  System.out.write(b);ӡ̨
-        outputStream.write(convertToBytes(txt));
+        writeEvent(event);
         if (immediateFlush)
             //־ˢ
             outputStream.flush();
     }
 
+    /**
+     * Lay out and encode an event into a new byte array, without writing it.
+     * Unlike {@link #doEncode(Object)}, this method does not use the encoder's
+     * reusable buffers and may thus be invoked by several threads concurrently,
+     * provided the layout is thread-safe.
+     *
+     * @param event
+     * @return the encoded event
+     */
+    public byte[] encode(E event) {
+        StringBuilder sb = new StringBuilder(INITIAL_BUFFER_SIZE);
+        if (layout instanceof LayoutBase) {
+            ((LayoutBase<E>) layout).doLayout(event, sb);
+        } else {
+            sb.append(layout.doLayout(event));
+        }
+        ByteBuffer out;
+        try {
+            out = threadCharsetEncoder.get().encode(CharBuffer.wrap(sb));
+        } catch (CharacterCodingException e) {
+            throw new IllegalStateException("Malformed input is replaced and cannot possibly fail to encode.", e);
+        }
+        byte[] bytes = out.array();
+        if (out.arrayOffset() != 0 || out.limit() != bytes.length) {
+            bytes = Arrays.copyOfRange(bytes, out.arrayOffset(), out.arrayOffset() + out.limit());
+        }
+        return bytes;
+    }
+
+    /**
+     * Encode and write several events, flushing the underlying stream at most once,
+     * after the last event.
+     *
+     * @param events
+     * @throws IOException
+     */
+    public void doEncodeBatch(List<E> events) throws IOException {
+        for (E event : events) {
+            writeEvent(event);
+        }
+        if (immediateFlush)
+            outputStream.flush();
+    }
+
+    /**
+     * Lay out the event into the reusable buffer, then encode the characters
+     * into the reusable byte buffer which is written to the output stream in a
+     * single call, as prudent mode requires.
+     */
+    private void writeEvent(E event) throws IOException {
+        StringBuilder sb = layoutBuffer;
+        sb.setLength(0);
+        if (layout instanceof LayoutBase) {
+            ((LayoutBase<E>) layout).doLayout(event, sb);
+        } else {
+            sb.append(layout.doLayout(event));
+        }
+
+        int len = sb.length();
+        if (charArray.length < len) {
+            charArray = new char[len];
+            charBuffer = CharBuffer.wrap(charArray);
+        }
+        sb.getChars(0, len, charArray, 0);
+        charBuffer.clear();
+        charBuffer.limit(len);
+        encodeAndWrite(charBuffer);
+
+        if (sb.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            layoutBuffer = new StringBuilder(INITIAL_BUFFER_SIZE);
+            charArray = new char[INITIAL_BUFFER_SIZE];
+            charBuffer = CharBuffer.wrap(charArray);
+        }
+        if (byteBuffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            byteBuffer = ByteBuffer.allocate(BYTE_BUFFER_SIZE);
+        }
+    }
+
+    private void encodeAndWrite(CharBuffer in) throws IOException {
+        CharsetEncoder ce = getCharsetEncoder();
+        ce.reset();
+        ByteBuffer out = byteBuffer;
+        out.clear();
+        CoderResult cr = ce.encode(in, out, true);
+        while (cr.isOverflow()) {
+            out = grow(out, in.remaining());
+            cr = ce.encode(in, out, true);
+        }
+        if (cr.isError()) {
+            cr.throwException();
+        }
+        cr = ce.flush(out);
+        while (cr.isOverflow()) {
+            out = grow(out, 0);
+            cr = ce.flush(out);
+        }
+        if (out.position() > 0) {
+            outputStream.write(out.array(), out.arrayOffset(), out.position());
+        }
+    }
+
+    /**
+     * Replace the byte buffer by a larger one holding the bytes encoded so far,
+     * with room for at least <code>remainingChars</code> more characters.
+     */
+    private ByteBuffer grow(ByteBuffer out, int remainingChars) {
+        int needed = out.position() + (int) Math.ceil(remainingChars * (double) getCharsetEncoder().maxBytesPerChar());
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(needed, out.capacity() * 2));
+        out.flip();
+        larger.put(out);
+        byteBuffer = larger;
+        return larger;
+    }
+
+    private CharsetEncoder getCharsetEncoder() {
+        if (charsetEncoder == null) {
+            charsetEncoder = newCharsetEncoder(charset);
+        }
+        return charsetEncoder;
+    }
+
+    private static CharsetEncoder newCharsetEncoder(Charset charset) {
+        Charset cs = (charset == null) ? Charset.defaultCharset() : charset;
+        // replace malformed input like String.getBytes() does
+        return cs.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    private ThreadLocal<CharsetEncoder> newThreadCharsetEncoder() {
+        final Charset cs = charset;
+        return new ThreadLocal<CharsetEncoder>() {
+            @Override
+            protected CharsetEncoder initialValue() {
+                return newCharsetEncoder(cs);
+            }
+        };
+    }
+
     public boolean isStarted() {
         return false;
     }
@@ -15,11 +15,18 @@
 package ch.qos.logback.core.net;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -71,6 +78,17 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
      */
     private static final int DEFAULT_EVENT_DELAY_TIMEOUT = 100;
 
+    /**
+     * Default number of batches which may be awaiting an acknowledgement
+     * from the remote peer.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_BATCHES = 4;
+
+    /**
+     * Default timeout when waiting for the remote peer to acknowledge a batch.
+     */
+    public static final int DEFAULT_ACKNOWLEDGEMENT_TIMEOUT = 30000;
+
     private final ObjectWriterFactory objectWriterFactory;
     private final QueueFactory queueFactory;
 
@@ -81,6 +99,10 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
     private int queueSize = DEFAULT_QUEUE_SIZE;
     private int acceptConnectionTimeout = DEFAULT_ACCEPT_CONNECTION_DELAY;
     private Duration eventDelayLimit = new Duration(DEFAULT_EVENT_DELAY_TIMEOUT);
+    private int batchSize = 0;
+    private boolean compressBatches = false;
+    private int maxInFlightBatches = DEFAULT_MAX_IN_FLIGHT_BATCHES;
+    private Duration acknowledgementTimeout = new Duration(DEFAULT_ACKNOWLEDGEMENT_TIMEOUT);
 
     private BlockingDeque<E> deque;
     private String peerId;
@@ -131,6 +153,16 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
             addError("Queue size must be greater than zero");
         }
 
+        if (batchSize > 0 && maxInFlightBatches <= 0) {
+            errorCount++;
+            addError("maxInFlightBatches must be greater than zero");
+        }
+
+        if (batchSize > 0 && (acknowledgementTimeout.getMilliseconds() <= 0 || acknowledgementTimeout.getMilliseconds() > Integer.MAX_VALUE)) {
+            errorCount++;
+            addError("acknowledgementTimeout must be greater than zero and below " + Integer.MAX_VALUE + " milliseconds");
+        }
+
         if (errorCount == 0) {
             try {
                 address = InetAddress.getByName(remoteHost);
@@ -188,9 +220,15 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
         try {
             while (socketConnectionCouldBeEstablished()) {
                 try {
-                    ObjectWriter objectWriter = createObjectWriterForSocket();
-                    addInfo(peerId + "connection established");
-                    dispatchEvents(objectWriter);
+                    if (batchSize > 0) {
+                        EventBatchWriter batchWriter = createEventBatchWriterForSocket();
+                        addInfo(peerId + "connection established");
+                        dispatchEventBatches(batchWriter);
+                    } else {
+                        ObjectWriter objectWriter = createObjectWriterForSocket();
+                        addInfo(peerId + "connection established");
+                        dispatchEvents(objectWriter);
+                    }
                 } catch (IOException ex) {
                     addInfo(peerId + "connection failed: " + ex);
                 } finally {
@@ -211,11 +249,31 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
 
     private ObjectWriter createObjectWriterForSocket() throws IOException {
         socket.setSoTimeout(acceptConnectionTimeout);
-        ObjectWriter objectWriter = objectWriterFactory.newAutoFlushingObjectWriter(socket.getOutputStream());
+        ObjectWriter objectWriter = createObjectWriter(socket.getOutputStream());
         socket.setSoTimeout(0);
         return objectWriter;
     }
 
+    private EventBatchWriter createEventBatchWriterForSocket() throws IOException {
+        // acknowledgements are the only reads, a peer which stops sending them
+        // is treated as a failed connection
+        socket.setSoTimeout((int) acknowledgementTimeout.getMilliseconds());
+        return new EventBatchWriter(socket.getInputStream(), socket.getOutputStream(), compressBatches);
+    }
+
+    /**
+     * Creates the writer through which events are sent to the server. Events
+     * are serialized by default, subclasses may override this method to use
+     * another format.
+     *
+     * @param outputStream the socket's output stream
+     * @return the writer
+     * @throws IOException if an I/O error occurs while writing the stream header
+     */
+    protected ObjectWriter createObjectWriter(OutputStream outputStream) throws IOException {
+        return objectWriterFactory.newAutoFlushingObjectWriter(outputStream);
+    }
+
     private SocketConnector createConnector(InetAddress address, int port, int initialDelay, long retryDelay) {
         SocketConnector connector = newConnector(address, port, initialDelay, retryDelay);
         connector.setExceptionHandler(this);
@@ -237,6 +295,81 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
         }
     }
 
+    private void dispatchEventBatches(EventBatchWriter batchWriter) throws InterruptedException, IOException {
+        LinkedList<EventBatch<E>> inFlightBatches = new LinkedList<EventBatch<E>>();
+        long sequence = 0;
+        try {
+            while (true) {
+                E first;
+                if (inFlightBatches.isEmpty()) {
+                    first = deque.takeFirst();
+                } else {
+                    // while idle, make sure the remote peer is still alive by
+                    // collecting the outstanding acknowledgements
+                    first = deque.pollFirst(acknowledgementTimeout.getMilliseconds(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        processAcknowledgements(batchWriter, inFlightBatches, 0);
+                        continue;
+                    }
+                }
+                List<E> events = new ArrayList<E>();
+                events.add(first);
+                deque.drainTo(events, batchSize - 1);
+                inFlightBatches.addLast(new EventBatch<E>(++sequence, events));
+
+                List<Serializable> serializableEvents = new ArrayList<Serializable>(events.size());
+                for (E event : events) {
+                    postProcessEvent(event);
+                    serializableEvents.add(getPST().transform(event));
+                }
+                batchWriter.write(sequence, serializableEvents);
+                processAcknowledgements(batchWriter, inFlightBatches, maxInFlightBatches - 1);
+            }
+        } catch (IOException e) {
+            tryReAddingBatchesToFrontOfQueue(inFlightBatches);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the batches acknowledged by the remote peer, blocking while
+     * more than <code>maxUnacknowledged</code> batches are awaiting an
+     * acknowledgement, for at most <b>acknowledgementTimeout</b> per
+     * acknowledgement.
+     */
+    private void processAcknowledgements(EventBatchWriter batchWriter, LinkedList<EventBatch<E>> inFlightBatches, int maxUnacknowledged)
+                    throws IOException {
+        while (inFlightBatches.size() > maxUnacknowledged || batchWriter.isAcknowledgementAvailable()) {
+            long acknowledged;
+            try {
+                acknowledged = batchWriter.readAcknowledgement();
+            } catch (SocketTimeoutException e) {
+                throw new SocketTimeoutException("no acknowledgement received within " + acknowledgementTimeout);
+            }
+            Iterator<EventBatch<E>> i = inFlightBatches.iterator();
+            while (i.hasNext() && i.next().sequence <= acknowledged) {
+                i.remove();
+            }
+        }
+    }
+
+    private void tryReAddingBatchesToFrontOfQueue(LinkedList<EventBatch<E>> inFlightBatches) {
+        int dropped = 0;
+        Iterator<EventBatch<E>> batches = inFlightBatches.descendingIterator();
+        while (batches.hasNext()) {
+            List<E> events = batches.next().events;
+            ListIterator<E> i = events.listIterator(events.size());
+            while (i.hasPrevious()) {
+                if (!deque.offerFirst(i.previous())) {
+                    dropped++;
+                }
+            }
+        }
+        if (dropped > 0) {
+            addInfo("Dropping " + dropped + " unacknowledged events due to socket connection error and maxed out deque capacity");
+        }
+    }
+
     private void tryReAddingEventToFrontOfQueue(E event) {
         final boolean wasInserted = deque.offerFirst(event);
         if (!wasInserted) {
@@ -387,6 +520,85 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
         return eventDelayLimit;
     }
 
+    /**
+     * The <b>batchSize</b> property takes a non-negative integer representing
+     * the maximum number of events sent to the remote receiver in a single
+     * block. When greater than zero, the events waiting in the deque are
+     * drained in batches, each batch being framed, written at once and
+     * acknowledged by the receiver. Batches which have not been acknowledged
+     * when the connection fails are sent again once it is re-established,
+     * hence events may be delivered more than once. The receiver must support
+     * the batched protocol. The default value of zero sends each event as a
+     * separate serialized object.
+     *
+     * @param batchSize the maximum number of events per batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the value of the <b>batchSize</b> property.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The <b>compressBatches</b> property determines whether batches are
+     * deflated before being sent. It only applies when <b>batchSize</b> is
+     * greater than zero and is off by default.
+     */
+    public void setCompressBatches(boolean compressBatches) {
+        this.compressBatches = compressBatches;
+    }
+
+    /**
+     * Returns the value of the <b>compressBatches</b> property.
+     */
+    public boolean isCompressBatches() {
+        return compressBatches;
+    }
+
+    /**
+     * The <b>maxInFlightBatches</b> property takes a positive integer
+     * representing the number of batches which may be sent before the remote
+     * receiver acknowledges them. Once this limit is reached, the appender
+     * waits for an acknowledgement before sending further batches. The
+     * default value is 4.
+     */
+    public void setMaxInFlightBatches(int maxInFlightBatches) {
+        this.maxInFlightBatches = maxInFlightBatches;
+    }
+
+    /**
+     * Returns the value of the <b>maxInFlightBatches</b> property.
+     */
+    public int getMaxInFlightBatches() {
+        return maxInFlightBatches;
+    }
+
+    /**
+     * The <b>acknowledgementTimeout</b> property takes a positive duration
+     * representing how long to wait for the remote receiver to acknowledge a
+     * batch once <b>maxInFlightBatches</b> batches are awaiting an
+     * acknowledgement, or once no event was sent for that long while batches
+     * are awaiting an acknowledgement. When it elapses, the connection is
+     * considered failed:
+     * unacknowledged batches are queued again and the connection is
+     * re-established. The default value is 30 seconds.
+     */
+    public void setAcknowledgementTimeout(Duration acknowledgementTimeout) {
+        this.acknowledgementTimeout = acknowledgementTimeout;
+    }
+
+    /**
+     * Returns the value of the <b>acknowledgementTimeout</b> property.
+     */
+    public Duration getAcknowledgementTimeout() {
+        return acknowledgementTimeout;
+    }
+
     /**
      * Sets the timeout that controls how long we'll wait for the remote
      * peer to accept our connection attempt.
@@ -400,4 +612,18 @@ public abstract class AbstractSocketAppender<E> extends AppenderBase<E> implemen
         this.acceptConnectionTimeout = acceptConnectionTimeout;
     }
 
+    /**
+     * Events sent in a single block, kept until the remote peer acknowledges
+     * them.
+     */
+    private static class EventBatch<E> {
+        final long sequence;
+        final List<E> events;
+
+        EventBatch(long sequence, List<E> events) {
+            this.sequence = sequence;
+            this.events = events;
+        }
+    }
+
 }
@@ -0,0 +1,133 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads the blocks written by an {@link EventBatchWriter} and acknowledges
+ * them once handled.
+ */
+public class EventBatchReader {
+
+    /**
+     * Upper bound on the length of a block, guarding against corrupted or
+     * hostile streams.
+     */
+    public static final int MAX_BLOCK_LENGTH = 64 * 1024 * 1024;
+
+    private final DataInputStream inputStream;
+    private final DataOutputStream acknowledgements;
+    private final Inflater inflater = new Inflater();
+    private boolean headerRead;
+    private long sequence;
+
+    /**
+     * Creates a new reader.
+     *
+     * @param inputStream stream from which blocks are read
+     * @param outputStream stream to which acknowledgements are written, may be
+     *                     {@code null} in which case none are sent
+     */
+    public EventBatchReader(InputStream inputStream, OutputStream outputStream) {
+        this.inputStream = new DataInputStream(inputStream);
+        this.acknowledgements = outputStream == null ? null : new DataOutputStream(outputStream);
+    }
+
+    /**
+     * Tells whether the given stream starts with the header of a batched
+     * stream. The stream must support {@link InputStream#mark(int)}, it is
+     * reset to its current position before returning.
+     *
+     * @param inputStream the stream to inspect
+     * @return {@code true} if the stream was written by an
+     *         {@link EventBatchWriter}
+     * @throws IOException if the first bytes of the stream could not be read
+     */
+    public static boolean isBatchStream(InputStream inputStream) throws IOException {
+        inputStream.mark(4);
+        try {
+            return new DataInputStream(inputStream).readInt() == EventBatchWriter.MAGIC;
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Reads the next block.
+     *
+     * @return the events of the block
+     * @throws java.io.EOFException if the stream ends
+     * @throws IOException if the block could not be read
+     * @throws ClassNotFoundException if the class of an event is unknown
+     */
+    public List<Object> readBatch() throws IOException, ClassNotFoundException {
+        if (!headerRead) {
+            if (inputStream.readInt() != EventBatchWriter.MAGIC) {
+                throw new StreamCorruptedException("not a batched event stream");
+            }
+            int version = inputStream.readInt();
+            if (version != EventBatchWriter.VERSION) {
+                throw new StreamCorruptedException("unsupported version " + version);
+            }
+            headerRead = true;
+        }
+
+        int length = inputStream.readInt();
+        if (length < EventBatchWriter.BLOCK_HEADER_SIZE || length > MAX_BLOCK_LENGTH) {
+            throw new StreamCorruptedException("invalid block length " + length);
+        }
+        long blockSequence = inputStream.readLong();
+        int flags = inputStream.readUnsignedByte();
+        int count = inputStream.readInt();
+        byte[] payload = new byte[length - EventBatchWriter.BLOCK_HEADER_SIZE];
+        inputStream.readFully(payload);
+
+        InputStream in = new ByteArrayInputStream(payload);
+        if ((flags & EventBatchWriter.COMPRESSED) != 0) {
+            inflater.reset();
+            in = new InflaterInputStream(in, inflater);
+        }
+        ObjectInputStream ois = new ObjectInputStream(in);
+        List<Object> events = new ArrayList<Object>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            events.add(ois.readObject());
+        }
+        sequence = blockSequence;
+        return events;
+    }
+
+    /**
+     * Acknowledges the last block read.
+     *
+     * @throws IOException if the acknowledgement could not be written
+     */
+    public void acknowledge() throws IOException {
+        if (acknowledgements == null)
+            return;
+        acknowledgements.writeLong(sequence);
+        acknowledgements.flush();
+    }
+}
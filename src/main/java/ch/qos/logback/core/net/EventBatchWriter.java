@@ -0,0 +1,178 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes batches of events as length-framed blocks and reads the
+ * acknowledgements sent back by the receiver.
+ * <p>
+ * The stream starts with {@link #MAGIC} and {@link #VERSION}. Each block then
+ * consists of the length of the rest of the block, its sequence number, its
+ * flags, the number of events it holds and the events themselves, serialized
+ * in a single object stream and deflated when {@link #COMPRESSED} is set.
+ * Once all the events of a block have been handled, the receiver sends back
+ * the block's sequence number.
+ * <p>
+ * A block, together with the stream header for the first one, is assembled
+ * in memory and handed to the socket with a single write.
+ */
+public class EventBatchWriter {
+
+    /**
+     * Marks the start of a batched stream. Its first byte differs from the
+     * one of a serialization stream header so that receivers can tell both
+     * protocols apart.
+     */
+    public static final int MAGIC = 0x4C424231;
+
+    public static final int VERSION = 1;
+
+    /**
+     * Flag set on blocks whose payload is deflated.
+     */
+    public static final int COMPRESSED = 1;
+
+    /**
+     * Size of the sequence number, flags and event count which follow the
+     * block length.
+     */
+    static final int BLOCK_HEADER_SIZE = 8 + 1 + 4;
+
+    private final DataInputStream acknowledgements;
+    private final OutputStream outputStream;
+    private final Deflater deflater;
+    private final BlockBuffer buffer = new BlockBuffer();
+    private boolean headerWritten;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param inputStream stream from which acknowledgements are read
+     * @param outputStream stream to which blocks are written
+     * @param compress whether block payloads should be deflated
+     */
+    public EventBatchWriter(InputStream inputStream, OutputStream outputStream, boolean compress) {
+        this.acknowledgements = new DataInputStream(inputStream);
+        this.outputStream = outputStream;
+        this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
+    }
+
+    /**
+     * Writes the given events as a single block.
+     *
+     * @param sequence the sequence number of the block
+     * @param events the events to write
+     * @throws IOException if the block could not be written
+     */
+    public void write(long sequence, List<? extends Serializable> events) throws IOException {
+        buffer.reset();
+        if (!headerWritten) {
+            buffer.writeInt(MAGIC);
+            buffer.writeInt(VERSION);
+        }
+        int start = buffer.size();
+        buffer.skip(4 + BLOCK_HEADER_SIZE);
+
+        OutputStream payload = buffer;
+        if (deflater != null) {
+            payload = new DeflaterOutputStream(buffer, deflater, 512);
+        }
+        ObjectOutputStream oos = new ObjectOutputStream(payload);
+        for (Serializable event : events) {
+            oos.writeObject(event);
+        }
+        // the deflater is not ours to end, closing only finishes the payload
+        oos.close();
+        if (deflater != null) {
+            deflater.reset();
+        }
+
+        int end = buffer.size();
+        buffer.position(start);
+        buffer.writeInt(end - start - 4);
+        buffer.writeLong(sequence);
+        buffer.write(deflater != null ? COMPRESSED : 0);
+        buffer.writeInt(events.size());
+        buffer.position(end);
+
+        outputStream.write(buffer.array(), 0, end);
+        outputStream.flush();
+        headerWritten = true;
+    }
+
+    /**
+     * Tells whether an acknowledgement can be read without blocking.
+     */
+    public boolean isAcknowledgementAvailable() throws IOException {
+        return acknowledgements.available() >= 8;
+    }
+
+    /**
+     * Reads the next acknowledgement, blocking until it is available.
+     *
+     * @return the sequence number of the last block handled by the receiver
+     * @throws IOException if the acknowledgement could not be read
+     */
+    public long readAcknowledgement() throws IOException {
+        return acknowledgements.readLong();
+    }
+
+    /**
+     * A byte array output stream which can be rewound to fill in the header
+     * of a block once its payload has been written.
+     */
+    static class BlockBuffer extends ByteArrayOutputStream {
+
+        BlockBuffer() {
+            super(8192);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void position(int position) {
+            count = position;
+        }
+
+        void skip(int length) {
+            for (int i = 0; i < length; i++) {
+                write(0);
+            }
+        }
+
+        void writeInt(int v) {
+            write(v >>> 24);
+            write(v >>> 16);
+            write(v >>> 8);
+            write(v);
+        }
+
+        void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+    }
+}
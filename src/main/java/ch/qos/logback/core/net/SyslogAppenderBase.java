@@ -15,22 +15,38 @@ package ch.qos.logback.core.net;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.InetAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
 import java.nio.charset.Charset;
 
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLContext;
+
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.net.ssl.ConfigurableSSLSocketFactory;
+import ch.qos.logback.core.net.ssl.SSLComponent;
+import ch.qos.logback.core.net.ssl.SSLConfiguration;
+import ch.qos.logback.core.net.ssl.SSLParametersConfiguration;
+import ch.qos.logback.core.util.CloseUtil;
+import ch.qos.logback.core.util.Duration;
 
 /**
  * Base class for SyslogAppender.
  * 
+ * <p>
+ * Messages are sent as UDP datagrams by default. With the <b>transport</b>
+ * option set to TCP or TLS, they are sent over a connection by a
+ * {@link TcpSyslogOutputStream}, in which case the <b>ssl</b> option
+ * configures TLS.
+ * 
  * @author Ceki G&uuml;lc&uuml;
  * 
  * @param <E>
  */
-public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
+public abstract class SyslogAppenderBase<E> extends AppenderBase<E> implements SSLComponent {
 
     final static String SYSLOG_LAYOUT_URL = CoreConstants.CODES_URL + "#syslog_layout";
     final static int MAX_MESSAGE_SIZE_LIMIT = 65000;
@@ -39,10 +55,16 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
     String facilityStr;
     String syslogHost;
     protected String suffixPattern;
-    SyslogOutputStream sos;
+    OutputStream sos;
     int port = SyslogConstants.SYSLOG_PORT;
+    private boolean portSet = false;
     int maxMessageSize;
     Charset charset;
+    SyslogTransport transport = SyslogTransport.UDP;
+    SSLConfiguration ssl;
+    int queueSize = TcpSyslogOutputStream.DEFAULT_QUEUE_SIZE;
+    Duration eventDelayLimit = new Duration(100);
+    Duration reconnectionDelay = new Duration(TcpSyslogOutputStream.DEFAULT_RECONNECTION_DELAY);
 
     public void start() {
         int errorCount = 0;
@@ -57,28 +79,45 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
             charset = Charset.defaultCharset();
         }
 
-        try {
-            sos = createOutputStream();
-
-            final int systemDatagramSize = sos.getSendBufferSize();
-            if (maxMessageSize == 0) {
-                maxMessageSize = Math.min(systemDatagramSize, MAX_MESSAGE_SIZE_LIMIT);
-                addInfo("Defaulting maxMessageSize to [" + maxMessageSize + "]");
-            } else if (maxMessageSize > systemDatagramSize) {
-                addWarn("maxMessageSize of [" + maxMessageSize + "] is larger than the system defined datagram size of [" + systemDatagramSize + "].");
-                addWarn("This may result in dropped logs.");
+        if (transport == SyslogTransport.UDP) {
+            try {
+                SyslogOutputStream datagramStream = createOutputStream();
+                sos = datagramStream;
+
+                final int systemDatagramSize = datagramStream.getSendBufferSize();
+                if (maxMessageSize == 0) {
+                    maxMessageSize = Math.min(systemDatagramSize, MAX_MESSAGE_SIZE_LIMIT);
+                    addInfo("Defaulting maxMessageSize to [" + maxMessageSize + "]");
+                } else if (maxMessageSize > systemDatagramSize) {
+                    addWarn("maxMessageSize of [" + maxMessageSize + "] is larger than the system defined datagram size of [" + systemDatagramSize + "].");
+                    addWarn("This may result in dropped logs.");
+                }
+            } catch (UnknownHostException e) {
+                addError("Could not create SyslogWriter", e);
+                errorCount++;
+            } catch (SocketException e) {
+                addWarn("Failed to bind to a random datagram socket. Will try to reconnect later.", e);
             }
-        } catch (UnknownHostException e) {
-            addError("Could not create SyslogWriter", e);
-            errorCount++;
-        } catch (SocketException e) {
-            addWarn("Failed to bind to a random datagram socket. Will try to reconnect later.", e);
         }
 
         if (layout == null) {
             layout = buildLayout();
         }
 
+        if (transport == SyslogTransport.TLS && !portSet) {
+            port = SyslogConstants.SYSLOG_TLS_PORT;
+        }
+
+        // the stream starts a thread, only create it once all else is fine
+        if (errorCount == 0 && transport != SyslogTransport.UDP) {
+            try {
+                sos = createTcpOutputStream();
+            } catch (Exception e) {
+                addError("Could not create syslog connection", e);
+                errorCount++;
+            }
+        }
+
         if (errorCount == 0) {
             super.start();
         }
@@ -86,6 +125,27 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
 
     abstract public SyslogOutputStream createOutputStream() throws UnknownHostException, SocketException;
 
+    /**
+     * Creates the stream used with the TCP and TLS transports. Messages are not
+     * truncated unless <b>maxMessageSize</b> is set.
+     */
+    protected TcpSyslogOutputStream createTcpOutputStream() throws Exception {
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("Queue size must be greater than zero");
+        }
+        SocketFactory socketFactory = SocketFactory.getDefault();
+        if (transport == SyslogTransport.TLS) {
+            SSLContext sslContext = getSsl().createContext(this);
+            SSLParametersConfiguration parameters = getSsl().getParameters();
+            parameters.setContext(getContext());
+            socketFactory = new ConfigurableSSLSocketFactory(parameters, sslContext.getSocketFactory());
+        }
+        TcpSyslogOutputStream stream = new TcpSyslogOutputStream(this, InetAddress.getByName(syslogHost), port, socketFactory, queueSize,
+                        eventDelayLimit.getMilliseconds(), reconnectionDelay.getMilliseconds());
+        stream.start();
+        return stream;
+    }
+
     abstract public Layout<E> buildLayout();
 
     abstract public int getSeverityForEvent(Object eventObject);
@@ -101,7 +161,7 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
             if (msg == null) {
                 return;
             }
-            if (msg.length() > maxMessageSize) {
+            if (maxMessageSize > 0 && msg.length() > maxMessageSize) {
                 msg = msg.substring(0, maxMessageSize);
             }
             sos.write(msg.getBytes(charset));
@@ -229,10 +289,12 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
 
     /**
      * The port number on the syslog server to connect to. Normally, you would not
-     * want to change the default value, that is 514.
+     * want to change the default value, that is 514, or 6514 with the TLS
+     * transport.
      */
     public void setPort(int port) {
         this.port = port;
+        this.portSet = true;
     }
 
     /**
@@ -248,7 +310,8 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
      * longer than this are truncated. The default value is 65400 (which
      * is near the maximum for syslog-over-UDP). Note that the value is
      * characters; the number of bytes may vary if non-ASCII characters
-     * are present.
+     * are present. With the TCP and TLS transports, messages are not
+     * truncated unless this option is set.
      */
     public void setMaxMessageSize(int maxMessageSize) {
         this.maxMessageSize = maxMessageSize;
@@ -265,7 +328,7 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
     @Override
     public void stop() {
         if (sos != null) {
-            sos.close();
+            CloseUtil.closeQuietly(sos);
         }
         super.stop();
     }
@@ -305,4 +368,80 @@ public abstract class SyslogAppenderBase<E> extends AppenderBase<E> {
     public void setCharset(Charset charset) {
         this.charset = charset;
     }
+
+    public SyslogTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * The <b>transport</b> option takes one of the values UDP, the default,
+     * TCP or TLS. With TCP and TLS, messages are framed by their length in
+     * octets as described in RFC 6587 and RFC 5425, queued and sent in batches
+     * by a background thread which reconnects whenever the connection is
+     * lost. The batch being sent when the connection was lost is sent again in
+     * full once reconnected, so the daemon may receive some messages twice.
+     */
+    public void setTransport(SyslogTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * Gets the SSL configuration used with the TLS transport.
+     * @return SSL configuration; if no configuration has been set, a
+     *    default configuration is returned
+     */
+    public SSLConfiguration getSsl() {
+        if (ssl == null) {
+            ssl = new SSLConfiguration();
+        }
+        return ssl;
+    }
+
+    /**
+     * Sets the SSL configuration used with the TLS transport.
+     * @param ssl the SSL configuration to set
+     */
+    public void setSsl(SSLConfiguration ssl) {
+        this.ssl = ssl;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * The <b>queueSize</b> option is the number of messages which may be
+     * waiting to be sent with the TCP and TLS transports. The default value
+     * is 1024.
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public Duration getEventDelayLimit() {
+        return eventDelayLimit;
+    }
+
+    /**
+     * The <b>eventDelayLimit</b> option is how long to wait for room in the
+     * queue of the TCP and TLS transports before a message is dropped. The
+     * default value is 100 milliseconds.
+     */
+    public void setEventDelayLimit(Duration eventDelayLimit) {
+        this.eventDelayLimit = eventDelayLimit;
+    }
+
+    public Duration getReconnectionDelay() {
+        return reconnectionDelay;
+    }
+
+    /**
+     * The <b>reconnectionDelay</b> option is how long to wait before trying to
+     * reconnect after the connection of the TCP and TLS transports is lost.
+     * The delay doubles after each failed attempt, up to 30 seconds. The
+     * default value is 1 second.
+     */
+    public void setReconnectionDelay(Duration reconnectionDelay) {
+        this.reconnectionDelay = reconnectionDelay;
+    }
 }
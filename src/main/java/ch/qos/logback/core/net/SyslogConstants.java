@@ -22,6 +22,11 @@ public class SyslogConstants {
 
     static public final int SYSLOG_PORT = 514;
 
+    /**
+     * Port of syslog over TLS, as assigned by RFC 5425.
+     */
+    static public final int SYSLOG_TLS_PORT = 6514;
+
     // Following constants extracted from RFC 3164, we multiply them by 8
     // in order to precompute the facility part of PRI.
     // See RFC 3164, Section 4.1.1 for exact details.
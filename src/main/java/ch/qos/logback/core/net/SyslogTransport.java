@@ -0,0 +1,37 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+/**
+ * The transport used by {@link SyslogAppenderBase} to reach the syslog
+ * daemon.
+ */
+public enum SyslogTransport {
+
+    /**
+     * One datagram per message, as described in RFC 3164.
+     */
+    UDP,
+
+    /**
+     * A TCP connection carrying octet-counted messages, as described in
+     * RFC 6587.
+     */
+    TCP,
+
+    /**
+     * A TCP connection secured with TLS, as described in RFC 5425.
+     */
+    TLS;
+}
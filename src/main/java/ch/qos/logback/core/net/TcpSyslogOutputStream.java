@@ -0,0 +1,280 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.SocketFactory;
+
+import ch.qos.logback.core.spi.ContextAware;
+import ch.qos.logback.core.util.CloseUtil;
+import ch.qos.logback.core.util.ExponentialDelay;
+
+/**
+ * An {@link OutputStream} which sends syslog messages over a TCP connection,
+ * secured with TLS when given an SSL socket factory, as described in RFC 6587
+ * and RFC 5425.
+ * <p>
+ * As with {@link SyslogOutputStream}, the bytes written between two calls to
+ * {@link #flush()} form a single message. Each message is queued and a sender
+ * thread writes all the messages waiting in the queue at once, each preceded
+ * by its length in octets. When the connection fails, the sender reconnects
+ * with an exponentially increasing delay and sends the interrupted batch
+ * again.
+ */
+public class TcpSyslogOutputStream extends OutputStream {
+
+    /**
+     * Default number of messages waiting to be sent.
+     */
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    /**
+     * Default delay before the first reconnection attempt (1 second).
+     */
+    public static final int DEFAULT_RECONNECTION_DELAY = 1000;
+
+    /**
+     * Upper bound of the reconnection delay (30 seconds).
+     */
+    static final int MAX_RECONNECTION_DELAY = 30000;
+
+    /**
+     * How long {@link #close()} waits for queued messages to be sent.
+     */
+    static final int CLOSE_TIMEOUT = 1000;
+
+    private static final int SEND_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The maximum length after which we discard the existing message buffer
+     * and start anew.
+     */
+    private static final int MAX_LEN = 1024;
+
+    private final ContextAware owner;
+    private final InetAddress address;
+    private final int port;
+    private final SocketFactory socketFactory;
+    private final BlockingQueue<byte[]> queue;
+    private final long eventDelayLimit;
+    private final long reconnectionDelay;
+    private final String peerId;
+    private final Sender sender = new Sender();
+
+    private ByteArrayOutputStream message = new ByteArrayOutputStream();
+    private volatile boolean closed;
+    private volatile Socket socket;
+
+    /**
+     * Creates a new stream. Messages are only sent once {@link #start()} has
+     * been invoked.
+     *
+     * @param owner component on behalf of which status messages are reported
+     * @param address address of the syslog daemon
+     * @param port port of the syslog daemon
+     * @param socketFactory factory of the sockets connected to the daemon
+     * @param queueSize number of messages which may be waiting to be sent
+     * @param eventDelayLimit milliseconds to wait for room in the queue before
+     *                        dropping a message
+     * @param reconnectionDelay milliseconds to wait before the first attempt
+     *                          to reconnect, the delay doubles after each
+     *                          failed attempt
+     */
+    public TcpSyslogOutputStream(ContextAware owner, InetAddress address, int port, SocketFactory socketFactory, int queueSize, long eventDelayLimit,
+                    long reconnectionDelay) {
+        this.owner = owner;
+        this.address = address;
+        this.port = port;
+        this.socketFactory = socketFactory;
+        this.queue = new ArrayBlockingQueue<byte[]>(queueSize);
+        this.eventDelayLimit = eventDelayLimit;
+        this.reconnectionDelay = reconnectionDelay;
+        this.peerId = "syslog daemon " + address.getHostName() + ":" + port + ": ";
+    }
+
+    /**
+     * Starts the thread which connects to the daemon and sends messages.
+     */
+    public void start() {
+        sender.setDaemon(true);
+        sender.setName("TcpSyslogOutputStream-Sender-" + address.getHostName() + ":" + port);
+        sender.start();
+    }
+
+    public void write(byte[] byteArray, int offset, int len) throws IOException {
+        message.write(byteArray, offset, len);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        message.write(b);
+    }
+
+    /**
+     * Ends the current message and queues it for delivery.
+     */
+    public void flush() throws IOException {
+        // there is no point in sending out an empty message
+        if (message.size() == 0) {
+            return;
+        }
+        byte[] bytes = message.toByteArray();
+
+        // clean up for next round
+        if (message.size() > MAX_LEN) {
+            message = new ByteArrayOutputStream();
+        } else {
+            message.reset();
+        }
+
+        if (closed) {
+            return;
+        }
+        try {
+            if (!queue.offer(bytes, eventDelayLimit, TimeUnit.MILLISECONDS)) {
+                owner.addInfo("Dropping syslog message due to timeout limit of [" + eventDelayLimit + "] milliseconds being exceeded");
+            }
+        } catch (InterruptedException e) {
+            owner.addError("Interrupted while queuing syslog message", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the sender, giving it a little time to send the messages still
+     * in the queue.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            sender.join(CLOSE_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (sender.isAlive()) {
+            sender.interrupt();
+            CloseUtil.closeQuietly(socket);
+            if (!queue.isEmpty()) {
+                owner.addWarn(peerId + queue.size() + " messages could not be sent before closing");
+            }
+        }
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Writes a message preceded by its length in octets, as ASCII digits, and
+     * a space.
+     */
+    private static void writeFrame(OutputStream out, byte[] message) throws IOException {
+        int length = message.length;
+        int divisor = 1;
+        while (divisor <= length / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.write('0' + (length / divisor) % 10);
+        }
+        out.write(' ');
+        out.write(message);
+    }
+
+    /**
+     * Connects to the daemon and writes the queued messages, reconnecting
+     * whenever the connection fails.
+     */
+    class Sender extends Thread implements SocketConnector.ExceptionHandler {
+
+        private final List<byte[]> batch = new ArrayList<byte[]>();
+
+        public void run() {
+            try {
+                while (!isDone()) {
+                    socket = connect();
+                    if (socket == null) {
+                        break;
+                    }
+                    owner.addInfo(peerId + "connection established");
+                    try {
+                        send(new BufferedOutputStream(socket.getOutputStream(), SEND_BUFFER_SIZE));
+                    } catch (IOException ex) {
+                        owner.addInfo(peerId + "connection failed: " + ex);
+                    } finally {
+                        CloseUtil.closeQuietly(socket);
+                        socket = null;
+                        owner.addInfo(peerId + "connection closed");
+                    }
+                }
+            } catch (InterruptedException ex) {
+                assert true; // ok... we'll exit now
+            }
+        }
+
+        private boolean isDone() {
+            return closed && batch.isEmpty() && queue.isEmpty();
+        }
+
+        private Socket connect() throws InterruptedException {
+            DefaultSocketConnector connector = new DefaultSocketConnector(address, port, new ExponentialDelay(reconnectionDelay, MAX_RECONNECTION_DELAY));
+            connector.setExceptionHandler(this);
+            connector.setSocketFactory(socketFactory);
+            return connector.call();
+        }
+
+        private void send(OutputStream out) throws IOException, InterruptedException {
+            while (!isDone()) {
+                // the batch is not empty when it failed to be sent on the
+                // previous connection
+                if (batch.isEmpty()) {
+                    byte[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch);
+                }
+                for (byte[] bytes : batch) {
+                    writeFrame(out, bytes);
+                }
+                out.flush();
+                batch.clear();
+            }
+        }
+
+        public void connectionFailed(SocketConnector connector, Exception ex) {
+            if (ex instanceof ConnectException) {
+                owner.addInfo(peerId + "connection refused");
+            } else {
+                owner.addInfo(peerId + ex);
+            }
+        }
+    }
+}
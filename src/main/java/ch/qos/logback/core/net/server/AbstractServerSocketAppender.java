@@ -19,12 +19,14 @@ import java.net.InetAddress;
 import java.net.ServerSocket;
 import java.net.UnknownHostException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import javax.net.ServerSocketFactory;
 
 import ch.qos.logback.core.AppenderBase;
 import ch.qos.logback.core.net.AbstractSocketAppender;
 import ch.qos.logback.core.spi.PreSerializationTransformer;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 
 /**
  * 
@@ -48,10 +50,13 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
     private int port = AbstractSocketAppender.DEFAULT_PORT;
     private int backlog = DEFAULT_BACKLOG;
     private int clientQueueSize = DEFAULT_CLIENT_QUEUE_SIZE;
+    private SlowClientPolicy slowClientPolicy = SlowClientPolicy.DROP;
+    private final EventFrameEncoder encoder = new EventFrameEncoder();
 
     private String address;
 
     private ServerRunner<RemoteReceiverClient> runner;
+    private ExecutorService executor;
 
     @Override
     public void start() {
@@ -61,9 +66,12 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
             ServerSocket socket = getServerSocketFactory().createServerSocket(getPort(), getBacklog(), getInetAddress());
             ServerListener<RemoteReceiverClient> listener = createServerListener(socket);
 
-            runner = createServerRunner(listener, getContext().getExecutorService());
+            // the listener and each client hold a thread for as long as they
+            // run, the context's executor is too small to serve several clients
+            executor = ExecutorServiceUtil.newExecutorService();
+            runner = createServerRunner(listener, executor);
             runner.setContext(getContext());
-            getContext().getExecutorService().execute(runner);
+            executor.execute(runner);
             super.start();
         } catch (Exception ex) {
             addError("server startup error: " + ex, ex);
@@ -75,7 +83,7 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
     }
 
     protected ServerRunner<RemoteReceiverClient> createServerRunner(ServerListener<RemoteReceiverClient> listener, Executor executor) {
-        return new RemoteReceiverServerRunner(listener, executor, getClientQueueSize());
+        return new RemoteReceiverServerRunner(listener, executor, getClientQueueSize(), getSlowClientPolicy());
     }
 
     @Override
@@ -84,6 +92,7 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
             return;
         try {
             runner.stop();
+            ExecutorServiceUtil.shutdown(executor);
             super.stop();
         } catch (IOException ex) {
             addError("server shutdown error: " + ex, ex);
@@ -97,12 +106,35 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
         postProcessEvent(event);
         final Serializable serEvent = getPST().transform(event);
         runner.accept(new ClientVisitor<RemoteReceiverClient>() {
+            private EventFrame frame;
+
             public void visit(RemoteReceiverClient client) {
-                client.offer(serEvent);
+                // serialize once, on behalf of all clients, and only if
+                // there is at least one of them
+                if (frame == null) {
+                    frame = encode(serEvent);
+                    if (frame == null)
+                        return;
+                }
+                client.offer(frame);
+                // let a client which joined or overflowed resume with the
+                // next event rather than with the next periodic reset
+                if (client.isAwaitingReset()) {
+                    encoder.requestReset();
+                }
             }
         });
     }
 
+    private EventFrame encode(Serializable serEvent) {
+        try {
+            return encoder.encode(serEvent);
+        } catch (IOException ex) {
+            addError("failed to serialize event: " + ex, ex);
+            return null;
+        }
+    }
+
     /**
      * Post process an event received via {@link #append(E)}.
      * @param event
@@ -212,4 +244,25 @@ public abstract class AbstractServerSocketAppender<E> extends AppenderBase<E> {
         this.clientQueueSize = clientQueueSize;
     }
 
+    /**
+     * Gets the policy applied to clients whose event queue is full.
+     * @return slow client policy
+     */
+    public SlowClientPolicy getSlowClientPolicy() {
+        return slowClientPolicy;
+    }
+
+    /**
+     * Sets the policy applied to clients whose event queue is full. With
+     * {@link SlowClientPolicy#DROP}, the default, events are dropped until
+     * the client catches up and the shared serialization stream is next
+     * reset, which happens every
+     * {@link ch.qos.logback.core.CoreConstants#OOS_RESET_FREQUENCY} events. With {@link SlowClientPolicy#DISCONNECT}, the
+     * client is disconnected.
+     * @param slowClientPolicy the policy to set
+     */
+    public void setSlowClientPolicy(SlowClientPolicy slowClientPolicy) {
+        this.slowClientPolicy = slowClientPolicy;
+    }
+
 }
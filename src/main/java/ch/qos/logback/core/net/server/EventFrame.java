@@ -0,0 +1,67 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An event serialized once and written as is to the stream of every client.
+ * <p>
+ * A frame is a fragment of an object serialization stream which may refer to
+ * class descriptors and objects written by the frames preceding it. Every so
+ * often, a frame starts with a reset marker which clears the handle table of
+ * the reading {@link java.io.ObjectInputStream}. A client stream must thus
+ * begin with such a frame, after the serialization stream header, and must
+ * not skip any frame until the next one.
+ *
+ * @see EventFrameEncoder
+ */
+final class EventFrame {
+
+    private final byte[] bytes;
+    private final boolean reset;
+
+    EventFrame(byte[] bytes, boolean reset) {
+        this.bytes = bytes;
+        this.reset = reset;
+    }
+
+    /**
+     * Tells whether this frame starts with a reset marker, in which case it
+     * does not depend on any previous frame.
+     * @return {@code true} if a client stream may start with this frame
+     */
+    boolean isReset() {
+        return reset;
+    }
+
+    /**
+     * Writes this frame to the given stream.
+     * @param out the target stream
+     * @throws IOException if an I/O error occurs
+     */
+    void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    /**
+     * Gets the length of this frame in bytes.
+     * @return frame length
+     */
+    int length() {
+        return bytes.length;
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.net.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import ch.qos.logback.core.CoreConstants;
+
+/**
+ * Serializes events into {@link EventFrame} instances.
+ * <p>
+ * All events go through the same object output stream, so that class
+ * descriptors are only written once between two resets. The stream is reset
+ * every {@link CoreConstants#OOS_RESET_FREQUENCY} events, and whenever
+ * {@link #requestReset()} is invoked on behalf of a client joining or
+ * catching up, which needs a frame it can start from. An encoder is not
+ * thread-safe.
+ */
+class EventFrameEncoder {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+    private final ObjectOutputStream oos;
+    private int counter = 0;
+
+    EventFrameEncoder() {
+        try {
+            oos = new HeaderlessObjectOutputStream(buffer);
+        } catch (IOException ex) {
+            // writing to a byte array does not fail
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Serializes the given event.
+     * @param event the event to serialize
+     * @return a frame holding the serialized event
+     * @throws IOException if the event could not be serialized
+     */
+    EventFrame encode(Serializable event) throws IOException {
+        buffer.reset();
+        boolean reset = counter == 0;
+        try {
+            if (reset) {
+                oos.reset();
+            }
+            oos.writeObject(event);
+            oos.flush();
+        } catch (IOException ex) {
+            // discard whatever was written before the failure, including
+            // the exception the stream records for its reader; the stream
+            // has cleared its handles, readers must do the same
+            oos.flush();
+            buffer.reset();
+            counter = 0;
+            throw ex;
+        }
+        if (++counter >= CoreConstants.OOS_RESET_FREQUENCY) {
+            counter = 0;
+        }
+        return new EventFrame(buffer.toByteArray(), reset);
+    }
+
+    /**
+     * Makes the next frame a reset frame.
+     */
+    void requestReset() {
+        counter = 0;
+    }
+
+    /**
+     * Writes the header which must precede frames on a stream.
+     * @param out the target stream
+     * @throws IOException if an I/O error occurs
+     */
+    static void writeStreamHeader(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(out);
+        dos.writeShort(ObjectStreamConstants.STREAM_MAGIC);
+        dos.writeShort(ObjectStreamConstants.STREAM_VERSION);
+        dos.flush();
+    }
+
+    /**
+     * An object output stream whose header is written separately, on each
+     * client stream.
+     */
+    private static class HeaderlessObjectOutputStream extends ObjectOutputStream {
+
+        HeaderlessObjectOutputStream(OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        protected void writeStreamHeader() {
+        }
+    }
+
+}
@@ -13,7 +13,6 @@
  */
 package ch.qos.logback.core.net.server;
 
-import java.io.Serializable;
 import java.util.concurrent.BlockingQueue;
 
 import ch.qos.logback.core.spi.ContextAware;
@@ -32,14 +31,30 @@ interface RemoteReceiverClient extends Client, ContextAware {
      * This method must be invoked before the {@link #run()} method is invoked.
      * @param queue the queue to set
      */
-    void setQueue(BlockingQueue<Serializable> queue);
+    void setQueue(BlockingQueue<EventFrame> queue);
+
+    /**
+     * Sets what the client does when an event is offered while its queue
+     * is full.
+     * @param slowClientPolicy the policy to set
+     */
+    void setSlowClientPolicy(SlowClientPolicy slowClientPolicy);
 
     /**
      * Offers an event to the client.
-     * @param event the subject event
+     * @param frame the subject event, already serialized
      * @return {@code true} if the client's queue accepted the event,
      *    {@code false} if the client's queue is full
      */
-    boolean offer(Serializable event);
+    boolean offer(EventFrame frame);
+
+    /**
+     * Tells whether the client waits for a reset frame and has room in its
+     * queue to accept one.
+     * <p>
+     * This method is invoked by the thread offering events.
+     * @return {@code true} if the next frame offered should be a reset frame
+     */
+    boolean isAwaitingReset();
 
 }
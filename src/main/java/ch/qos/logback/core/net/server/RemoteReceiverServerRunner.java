@@ -13,7 +13,6 @@
  */
 package ch.qos.logback.core.net.server;
 
-import java.io.Serializable;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 
@@ -26,6 +25,7 @@ import java.util.concurrent.Executor;
 class RemoteReceiverServerRunner extends ConcurrentServerRunner<RemoteReceiverClient> {
 
     private final int clientQueueSize;
+    private final SlowClientPolicy slowClientPolicy;
 
     /**
      * Constructs a new server runner.
@@ -37,8 +37,24 @@ class RemoteReceiverServerRunner extends ConcurrentServerRunner<RemoteReceiverCl
      *    each client
      */
     public RemoteReceiverServerRunner(ServerListener<RemoteReceiverClient> listener, Executor executor, int clientQueueSize) {
+        this(listener, executor, clientQueueSize, SlowClientPolicy.DROP);
+    }
+
+    /**
+     * Constructs a new server runner.
+     * @param listener the listener from which the server will accept new
+     *    clients
+     * @param executor that will be used to execute asynchronous tasks 
+     *    on behalf of the runner.
+     * @param queueSize size of the event queue that will be maintained for
+     *    each client
+     * @param slowClientPolicy what to do with clients whose queue is full
+     */
+    public RemoteReceiverServerRunner(ServerListener<RemoteReceiverClient> listener, Executor executor, int clientQueueSize,
+                    SlowClientPolicy slowClientPolicy) {
         super(listener, executor);
         this.clientQueueSize = clientQueueSize;
+        this.slowClientPolicy = slowClientPolicy;
     }
 
     /**
@@ -47,7 +63,8 @@ class RemoteReceiverServerRunner extends ConcurrentServerRunner<RemoteReceiverCl
     @Override
     protected boolean configureClient(RemoteReceiverClient client) {
         client.setContext(getContext());
-        client.setQueue(new ArrayBlockingQueue<Serializable>(clientQueueSize));
+        client.setQueue(new ArrayBlockingQueue<EventFrame>(clientQueueSize));
+        client.setSlowClientPolicy(slowClientPolicy);
         return true;
     }
 
@@ -13,21 +13,24 @@
  */
 package ch.qos.logback.core.net.server;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
-import java.io.Serializable;
 import java.net.Socket;
 import java.net.SocketException;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
-import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.util.CloseUtil;
 
 /**
  * A {@link RemoteReceiverClient} that writes serialized logging events to an
  * {@link OutputStream}.
+ * <p>
+ * Events are serialized once by the appender and the resulting
+ * {@link EventFrame} instances are shared by all clients. The stream is
+ * flushed whenever the client's queue is drained.
  *
  * @author Carl Harris
  */
@@ -37,7 +40,15 @@ class RemoteReceiverStreamClient extends ContextAwareBase implements RemoteRecei
     private final Socket socket;
     private final OutputStream outputStream;
 
-    private BlockingQueue<Serializable> queue;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private BlockingQueue<EventFrame> queue;
+    private SlowClientPolicy slowClientPolicy = SlowClientPolicy.DROP;
+    private volatile boolean disconnecting;
+
+    // only accessed by the appender offering frames
+    private boolean awaitingReset = true;
+    private boolean dropping;
 
     /**
      * Constructs a new client.
@@ -68,18 +79,55 @@ class RemoteReceiverStreamClient extends ContextAwareBase implements RemoteRecei
     /**
      * {@inheritDoc}
      */
-    public void setQueue(BlockingQueue<Serializable> queue) {
+    public void setQueue(BlockingQueue<EventFrame> queue) {
         this.queue = queue;
     }
 
     /**
      * {@inheritDoc}
      */
-    public boolean offer(Serializable event) {
+    public void setSlowClientPolicy(SlowClientPolicy slowClientPolicy) {
+        this.slowClientPolicy = slowClientPolicy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean offer(EventFrame frame) {
         if (queue == null) {
             throw new IllegalStateException("client has no event queue");
         }
-        return queue.offer(event);
+        if (awaitingReset) {
+            // frames refer to the ones preceding them up to the last reset
+            if (!frame.isReset()) {
+                if (dropping) {
+                    droppedCount.incrementAndGet();
+                }
+                return false;
+            }
+            awaitingReset = false;
+            dropping = false;
+        }
+        if (queue.offer(frame)) {
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        awaitingReset = true;
+        dropping = true;
+        if (slowClientPolicy == SlowClientPolicy.DISCONNECT && !disconnecting) {
+            disconnecting = true;
+            addWarn(clientId + "event queue is full, disconnecting");
+            close();
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isAwaitingReset() {
+        // a client whose queue is still full would drop the reset frame
+        return awaitingReset && queue != null && queue.remainingCapacity() > 0;
     }
 
     /**
@@ -97,20 +145,16 @@ class RemoteReceiverStreamClient extends ContextAwareBase implements RemoteRecei
     public void run() {
         addInfo(clientId + "connected");
 
-        ObjectOutputStream oos = null;
+        OutputStream out = null;
         try {
-            int counter = 0;
-            oos = createObjectOutputStream();
+            out = createOutputStream();
+            EventFrameEncoder.writeStreamHeader(out);
             while (!Thread.currentThread().isInterrupted()) {
                 try {
-                    Serializable event = queue.take();
-                    oos.writeObject(event);
-                    oos.flush();
-                    if (++counter >= CoreConstants.OOS_RESET_FREQUENCY) {
-                        // failing to reset the stream periodically will result in a
-                        // serious memory leak (as noted in AbstractSocketAppender)
-                        counter = 0;
-                        oos.reset();
+                    EventFrame frame = queue.take();
+                    frame.writeTo(out);
+                    if (queue.isEmpty()) {
+                        out.flush();
                     }
                 } catch (InterruptedException ex) {
                     Thread.currentThread().interrupt();
@@ -123,18 +167,22 @@ class RemoteReceiverStreamClient extends ContextAwareBase implements RemoteRecei
         } catch (RuntimeException ex) {
             addError(clientId + ex);
         } finally {
-            if (oos != null) {
-                CloseUtil.closeQuietly(oos);
+            if (out != null) {
+                CloseUtil.closeQuietly(out);
             }
             close();
+            long dropped = droppedCount.get();
+            if (dropped > 0) {
+                addInfo(clientId + dropped + " events dropped because the client could not keep up");
+            }
             addInfo(clientId + "connection closed");
         }
     }
 
-    private ObjectOutputStream createObjectOutputStream() throws IOException {
+    private OutputStream createOutputStream() throws IOException {
         if (socket == null) {
-            return new ObjectOutputStream(outputStream);
+            return new BufferedOutputStream(outputStream);
         }
-        return new ObjectOutputStream(socket.getOutputStream());
+        return new BufferedOutputStream(socket.getOutputStream());
     }
 }
@@ -0,0 +1,37 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.pattern;
+
+/**
+ * A converter able to append its value for an event directly to the output
+ * buffer, without first building an intermediate String through
+ * {@link Converter#convert(Object)}.
+ * 
+ * <p>{@link FormattingConverter}s implementing this interface have their
+ * padding and truncation applied in place, on the appended characters.
+ */
+public interface AppendableConverter<E> {
+
+    /**
+     * Append the value extracted from the event to the buffer. The appended
+     * characters must be the same as those returned by
+     * {@link Converter#convert(Object)}. Values which may be null are
+     * appended through {@link FormattingConverter#appendValue} so that they
+     * are padded the same way.
+     * 
+     * @param buf The buffer where data is appended
+     * @param event The event from where data is extracted
+     */
+    void appendTo(StringBuilder buf, E event);
+}
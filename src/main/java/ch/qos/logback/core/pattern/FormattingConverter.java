@@ -13,6 +13,8 @@
  */
 package ch.qos.logback.core.pattern;
 
+import java.lang.reflect.Method;
+
 abstract public class FormattingConverter<E> extends Converter<E> {
 
     static final int INITIAL_BUF_SIZE = 256;
@@ -20,6 +22,19 @@ abstract public class FormattingConverter<E> extends Converter<E> {
 
     FormatInfo formattingInfo;
 
+    /**
+     * Whether {@link AppendableConverter#appendTo} may be used in place of
+     * {@link #convert(Object)}, computed once per converter class.
+     */
+    private static final ClassValue<Boolean> APPEND_IN_PLACE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return AppendableConverter.class.isAssignableFrom(type) && !overridesConvert(type);
+        }
+    };
+
+    private final boolean appendInPlace = APPEND_IN_PLACE.get(getClass());
+
     final public FormatInfo getFormattingInfo() {
         return formattingInfo;
     }
@@ -33,6 +48,11 @@ abstract public class FormattingConverter<E> extends Converter<E> {
 
     @Override
     final public void write(StringBuilder buf, E event) {
+        if (appendInPlace) {
+            writeInPlace(buf, event);
+            return;
+        }
+
         String s = convert(event);
 
         if (formattingInfo == null) {
@@ -67,4 +87,77 @@ abstract public class FormattingConverter<E> extends Converter<E> {
             buf.append(s);
         }
     }
+
+    /**
+     * Append a value which may be null. Like {@link #write}, a null value is
+     * padded to spaces when formatting is requested and appended as "null"
+     * otherwise.
+     */
+    protected final void appendValue(StringBuilder buf, String s) {
+        if (s != null || formattingInfo == null) {
+            buf.append(s);
+        }
+    }
+
+    /**
+     * Let the converter append its value, then apply padding and truncation to
+     * the appended characters.
+     */
+    @SuppressWarnings("unchecked")
+    private void writeInPlace(StringBuilder buf, E event) {
+        int start = buf.length();
+        ((AppendableConverter<E>) this).appendTo(buf, event);
+
+        if (formattingInfo == null) {
+            return;
+        }
+
+        int min = formattingInfo.getMin();
+        int max = formattingInfo.getMax();
+        int len = buf.length() - start;
+
+        if (len > max) {
+            if (formattingInfo.isLeftTruncate()) {
+                buf.delete(start, start + len - max);
+            } else {
+                buf.setLength(start + max);
+            }
+        } else if (len < min) {
+            if (formattingInfo.isLeftPad()) {
+                SpacePadder.spacePad(buf, start, min - len);
+            } else {
+                SpacePadder.spacePad(buf, min - len);
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given class, or one of its superclasses below the
+     * class declaring {@code appendTo}, overrides {@code convert}. In that case
+     * {@code appendTo} would not produce the same characters as
+     * {@code convert} and must not be used.
+     */
+    static boolean overridesConvert(Class<?> clazz) {
+        Class<?> convertClass = findDeclaringClass(clazz, "convert", 1);
+        Class<?> appendToClass = findDeclaringClass(clazz, "appendTo", 2);
+        if (convertClass == null || appendToClass == null) {
+            return true;
+        }
+        return !convertClass.isAssignableFrom(appendToClass);
+    }
+
+    private static Class<?> findDeclaringClass(Class<?> clazz, String name, int parameterCount) {
+        try {
+            for (Class<?> c = clazz; c != null && c != FormattingConverter.class; c = c.getSuperclass()) {
+                for (Method m : c.getDeclaredMethods()) {
+                    if (m.getName().equals(name) && m.getParameterTypes().length == parameterCount && !m.isBridge()) {
+                        return c;
+                    }
+                }
+            }
+        } catch (SecurityException e) {
+            // fall through, the converter will use convert()
+        }
+        return null;
+    }
 }
@@ -109,12 +109,16 @@ abstract public class PatternLayoutBase<E> extends LayoutBase<E> {
 
     protected String writeLoopOnConverters(E event) {
         StringBuilder buf = new StringBuilder(128);
+        writeLoopOnConverters(buf, event);
+        return buf.toString();
+    }
+
+    protected void writeLoopOnConverters(StringBuilder buf, E event) {
         Converter<E> c = head;
         while (c != null) {
             c.write(buf, event);
             c = c.getNext();
         }
-        return buf.toString();
     }
 
     public String getPattern() {
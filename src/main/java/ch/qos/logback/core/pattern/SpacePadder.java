@@ -61,4 +61,20 @@ public class SpacePadder {
             }
         }
     }
+
+    /**
+     * Insert <code>length</code> spaces at position <code>index</code>.
+     */
+    final static public void spacePad(StringBuilder sbuf, int index, int length) {
+        while (length >= 32) {
+            sbuf.insert(index, SPACES[5]);
+            length -= 32;
+        }
+
+        for (int i = 4; i >= 0; i--) {
+            if ((length & (1 << i)) != 0) {
+                sbuf.insert(index, SPACES[i]);
+            }
+        }
+    }
 }
@@ -16,18 +16,49 @@ package ch.qos.logback.core.recovery;
 import java.io.*;
 import java.nio.channels.FileChannel;
 
+import ch.qos.logback.core.util.FileChannelOutputStream;
+
 public class ResilientFileOutputStream extends ResilientOutputStreamBase {
 
+    static final int DEFAULT_BUFFER_SIZE = 8192;
+
     private File file;
     private FileOutputStream fos;
+    private final int bufferSize;
+    private final boolean useFileChannel;
+    // written while holding the appender's lock, but read without it
+    private volatile long length;
+    private boolean syncOnClose = false;
 
     public ResilientFileOutputStream(File file, boolean append) throws FileNotFoundException {
+        this(file, append, DEFAULT_BUFFER_SIZE, false);
+    }
+
+    /**
+     * @param file the file to write to
+     * @param append whether to append to or truncate an existing file
+     * @param bufferSize the size of the buffer in front of the file
+     * @param useFileChannel when true, the buffer is a direct buffer written
+     *          through the file's channel instead of a heap buffer written
+     *          through the stream
+     */
+    public ResilientFileOutputStream(File file, boolean append, int bufferSize, boolean useFileChannel) throws FileNotFoundException {
         this.file = file;
+        this.bufferSize = bufferSize;
+        this.useFileChannel = useFileChannel;
         fos = new FileOutputStream(file, append);
-        this.os = new BufferedOutputStream(fos);
+        this.length = append ? file.length() : 0;
+        this.os = wrap(fos);
         this.presumedClean = true;
     }
 
+    private OutputStream wrap(FileOutputStream fos) {
+        if (useFileChannel) {
+            return new FileChannelOutputStream(fos.getChannel(), bufferSize);
+        }
+        return new BufferedOutputStream(fos, bufferSize);
+    }
+
     public FileChannel getChannel() {
         if (os == null) {
             return null;
@@ -35,10 +66,45 @@ public class ResilientFileOutputStream extends ResilientOutputStreamBase {
         return fos.getChannel();
     }
 
+    /**
+     * When true, the bytes written are synced to the storage device before the
+     * file is closed.
+     */
+    public void setSyncOnClose(boolean syncOnClose) {
+        this.syncOnClose = syncOnClose;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (syncOnClose && os != null) {
+                os.flush();
+                fos.getChannel().force(false);
+            }
+        } finally {
+            super.close();
+        }
+    }
+
     public File getFile() {
         return file;
     }
 
+    /**
+     * The length of the file, computed from its length when opened plus the
+     * number of bytes written since. Unlike {@link File#length()}, this does not
+     * require a system call. Writes made by other processes are not accounted
+     * for.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    protected void bytesWritten(int len) {
+        length += len;
+    }
+
     @Override
     String getDescription() {
         return "file [" + file + "]";
@@ -48,7 +114,9 @@ public class ResilientFileOutputStream extends ResilientOutputStreamBase {
     OutputStream openNewOutputStream() throws IOException {
         // see LOGBACK-765
         fos = new FileOutputStream(file, true);
-        return new BufferedOutputStream(fos);
+        // buffered bytes lost with the failed stream never made it to the file
+        length = file.length();
+        return wrap(fos);
     }
 
     @Override
@@ -50,6 +50,7 @@ abstract public class ResilientOutputStreamBase extends OutputStream {
 
         try {
             os.write(b, off, len);
+            bytesWritten(len);
             postSuccessfulWrite();
         } catch (IOException e) {
             postIOFailure(e);
@@ -66,6 +67,7 @@ abstract public class ResilientOutputStreamBase extends OutputStream {
         }
         try {
             os.write(b);
+            bytesWritten(1);
             postSuccessfulWrite();
         } catch (IOException e) {
             postIOFailure(e);
@@ -84,6 +86,13 @@ abstract public class ResilientOutputStreamBase extends OutputStream {
         }
     }
 
+    /**
+     * Called once <code>len</code> bytes were successfully handed to the
+     * underlying stream. The default implementation does nothing.
+     */
+    protected void bytesWritten(int len) {
+    }
+
     abstract String getDescription();
 
     abstract OutputStream openNewOutputStream() throws IOException;
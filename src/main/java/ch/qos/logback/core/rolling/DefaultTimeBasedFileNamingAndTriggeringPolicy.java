@@ -43,6 +43,11 @@ public class DefaultTimeBasedFileNamingAndTriggeringPolicy<E> extends TimeBasedF
         started = true;
     }
 
+    @Override
+    public boolean mayTrigger(File activeFile, E event) {
+        return getCurrentTime() >= nextCheck;
+    }
+
     public boolean isTriggeringEvent(File activeFile, final E event) {
         long time = getCurrentTime();
         if (time >= nextCheck) {
@@ -0,0 +1,27 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.rolling;
+
+/**
+ * Gives the length of the active log file as tracked by the appender writing
+ * to it, sparing triggering policies a query to the file system.
+ */
+public interface LengthCounter {
+
+    /**
+     * @return the number of bytes in the active file, including bytes written
+     *         but not yet flushed
+     */
+    long getLength();
+}
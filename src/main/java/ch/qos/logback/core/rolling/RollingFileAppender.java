@@ -18,11 +18,15 @@ import static ch.qos.logback.core.CoreConstants.MORE_INFO_PREFIX;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.recovery.ResilientFileOutputStream;
+import ch.qos.logback.core.util.FileUtil;
 import ch.qos.logback.core.rolling.helper.CompressionMode;
 import ch.qos.logback.core.rolling.helper.FileNamePattern;
 
@@ -38,15 +42,37 @@ import ch.qos.logback.core.rolling.helper.FileNamePattern;
  * @author Ceki G&uuml;lc&uuml;
  */
 public class RollingFileAppender<E> extends FileAppender<E> {
-    File currentlyActiveFile;
+    // read without synchronization when checking whether a rollover is due
+    volatile File currentlyActiveFile;
     TriggeringPolicy<E> triggeringPolicy;
     RollingPolicy rollingPolicy;
 
+    boolean nonBlockingRollover = false;
+    /**
+     * Whether rollovers open the next file before swapping it in, as decided at
+     * start time.
+     */
+    private boolean swapOnRollover;
+
     static private String RFA_NO_TP_URL = CODES_URL + "#rfa_no_tp";
     static private String RFA_NO_RP_URL = CODES_URL + "#rfa_no_rp";
     static private String COLLISION_URL = CODES_URL + "#rfa_collision";
     static private String RFA_LATE_FILE_URL = CODES_URL + "#rfa_file_after";
 
+    /**
+     * Reads the length of the active file from the byte count kept by its output
+     * stream.
+     */
+    private final LengthCounter lengthCounter = new LengthCounter() {
+        public long getLength() {
+            OutputStream os = getOutputStream();
+            if (os instanceof ResilientFileOutputStream) {
+                return ((ResilientFileOutputStream) os).getLength();
+            }
+            return currentlyActiveFile.length();
+        }
+    };
+
     public void start() {
         if (triggeringPolicy == null) {
             addWarn("No TriggeringPolicy was set for the RollingFileAppender named " + getName());
@@ -96,9 +122,38 @@ public class RollingFileAppender<E> extends FileAppender<E> {
 
         currentlyActiveFile = new File(getFile());
         addInfo("Active log file name: " + getFile());
+        // in prudent mode other processes write to the same file, only the file
+        // system knows its actual size
+        if (!isPrudent()) {
+            attachLengthCounter();
+        }
+        swapOnRollover = false;
+        if (nonBlockingRollover) {
+            if (isGroupCommit()) {
+                addWarn("Non-blocking rollover is incompatible with group commit as the previous file must be synced before the new one is written to.");
+                addWarn("Falling back to blocking rollover for the RollingFileAppender named " + getName());
+            } else if (rawFileProperty() == null) {
+                swapOnRollover = true;
+            } else {
+                addWarn("Non-blocking rollover requires the active file name to change at each rollover, i.e. the file property to be left unset.");
+                addWarn("Falling back to blocking rollover for the RollingFileAppender named " + getName());
+            }
+        }
         super.start();
     }
 
+    @SuppressWarnings("unchecked")
+    private void attachLengthCounter() {
+        if (triggeringPolicy instanceof SizeBasedTriggeringPolicy) {
+            ((SizeBasedTriggeringPolicy<E>) triggeringPolicy).setLengthCounter(lengthCounter);
+        } else if (triggeringPolicy instanceof TimeBasedRollingPolicy) {
+            TimeBasedFileNamingAndTriggeringPolicy<E> tbfnatp = ((TimeBasedRollingPolicy<E>) triggeringPolicy).getTimeBasedFileNamingAndTriggeringPolicy();
+            if (tbfnatp instanceof SizeAndTimeBasedFNATP) {
+                ((SizeAndTimeBasedFNATP<E>) tbfnatp).setLengthCounter(lengthCounter);
+            }
+        }
+    }
+
     private boolean checkForFileAndPatternCollisions() {
         if (triggeringPolicy instanceof RollingPolicyBase) {
             final RollingPolicyBase base = (RollingPolicyBase) triggeringPolicy;
@@ -172,6 +227,10 @@ public class RollingFileAppender<E> extends FileAppender<E> {
      * Implemented by delegating most of the rollover work to a rolling policy.
      */
     public void rollover() {
+        if (swapOnRollover) {
+            swappingRollover();
+            return;
+        }
         lock.lock();
         try {
             // Note: This method needs to be synchronized because it needs exclusive
@@ -187,6 +246,46 @@ public class RollingFileAppender<E> extends FileAppender<E> {
         }
     }
 
+    /**
+     * Open the next active file before taking the lock, which is then held only
+     * for as long as it takes to swap the streams. The previous file is closed,
+     * and handed over to the rolling policy for compression and clean up, after
+     * the lock is released. Concurrent logging threads keep writing to the
+     * previous file while the next one is being opened.
+     */
+    private void swappingRollover() {
+        String activeFileName = rollingPolicy.getActiveFileName();
+        File nextActiveFile = new File(activeFileName);
+        ResilientFileOutputStream nextOutputStream;
+        try {
+            if (!FileUtil.createMissingParentDirectories(nextActiveFile)) {
+                addError("Failed to create parent directories for [" + nextActiveFile.getAbsolutePath() + "]");
+            }
+            nextOutputStream = newResilientFileOutputStream(nextActiveFile);
+        } catch (IOException e) {
+            addError("Failed to open [" + activeFileName + "]. Deferring roll-over.", e);
+            return;
+        }
+
+        OutputStream previousOutputStream;
+        lock.lock();
+        try {
+            previousOutputStream = replaceOutputStream(nextOutputStream);
+            currentlyActiveFile = nextActiveFile;
+        } finally {
+            lock.unlock();
+        }
+
+        if (previousOutputStream != null) {
+            try {
+                previousOutputStream.close();
+            } catch (IOException e) {
+                addError("Could not close the previously active file.", e);
+            }
+        }
+        attemptRollover();
+    }
+
     private void attemptOpenFile() {
         try {
             // update the currentlyActiveFile LOGBACK-64
@@ -214,15 +313,71 @@ public class RollingFileAppender<E> extends FileAppender<E> {
     */
     @Override
     protected void subAppend(E event) {
-        synchronized (triggeringPolicy) {
-            if (triggeringPolicy.isTriggeringEvent(currentlyActiveFile, event)) {
-                rollover();
+        if (mayTrigger(event)) {
+            synchronized (triggeringPolicy) {
+                if (triggeringPolicy.isTriggeringEvent(currentlyActiveFile, event)) {
+                    rollover();
+                }
             }
         }
         //ʱڵ丸OutputStreamAppendersubAppend
         super.subAppend(event);
     }
 
+    /**
+     * Split the batch wherever the triggering policy requests a rollover. Time
+     * based triggers thus roll over at the same event as when writing events
+     * individually. Size based triggers only see the bytes written before the
+     * batch, so a file may exceed its maximum size by up to a whole batch.
+     */
+    @Override
+    protected void subAppendBatch(List<E> events) {
+        int from = 0;
+        for (int i = 0; i < events.size(); i++) {
+            if (!mayTrigger(events.get(i))) {
+                continue;
+            }
+            synchronized (triggeringPolicy) {
+                if (triggeringPolicy.isTriggeringEvent(currentlyActiveFile, events.get(i))) {
+                    if (i > from) {
+                        super.subAppendBatch(events.subList(from, i));
+                        from = i;
+                    }
+                    rollover();
+                }
+            }
+        }
+        super.subAppendBatch(events.subList(from, events.size()));
+    }
+
+    /**
+     * Ask the triggering policy, without synchronizing on it, whether the event
+     * may trigger a rollover at all.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean mayTrigger(E event) {
+        if (triggeringPolicy instanceof RolloverPrecheck) {
+            return ((RolloverPrecheck<E>) triggeringPolicy).mayTrigger(currentlyActiveFile, event);
+        }
+        return true;
+    }
+
+    public boolean isNonBlockingRollover() {
+        return nonBlockingRollover;
+    }
+
+    /**
+     * When true, and provided the file property is not set, a rollover opens the
+     * next active file before swapping it in for the current one. Logging threads
+     * are then held only for the duration of the swap instead of the whole
+     * close-rename-reopen sequence. Default is false.
+     *
+     * @param nonBlockingRollover
+     */
+    public void setNonBlockingRollover(boolean nonBlockingRollover) {
+        this.nonBlockingRollover = nonBlockingRollover;
+    }
+
     public RollingPolicy getRollingPolicy() {
         return rollingPolicy;
     }
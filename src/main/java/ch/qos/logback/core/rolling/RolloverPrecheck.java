@@ -0,0 +1,33 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.rolling;
+
+import java.io.File;
+
+/**
+ * Implemented by triggering policies able to rule out a rollover without
+ * acquiring any lock, typically by reading a volatile field. This spares
+ * {@link RollingFileAppender} from synchronizing on the policy for the vast
+ * majority of events.
+ */
+public interface RolloverPrecheck<E> {
+
+    /**
+     * Returns false if the event certainly does not trigger a rollover, in which
+     * case {@link TriggeringPolicy#isTriggeringEvent(File, Object)} need not be
+     * invoked. Must be free of side effects and safe to call without
+     * synchronization.
+     */
+    boolean mayTrigger(File activeFile, E event);
+}
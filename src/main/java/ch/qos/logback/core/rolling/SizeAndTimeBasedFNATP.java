@@ -104,7 +104,34 @@ public class SizeAndTimeBasedFNATP<E> extends TimeBasedFileNamingAndTriggeringPo
 
 
     InvocationGate invocationGate = new DefaultInvocationGate();
+
+    LengthCounter lengthCounter;
+
+    /**
+     * Set once the length counter reached the maximum size, cleared when it
+     * falls back below it, i.e. once the file was rolled over.
+     */
+    boolean sizeExceeded;
+
+    /**
+     * When set, the size of the active file is read from the given counter on
+     * every event instead of being looked up on the file system from time to
+     * time.
+     */
+    public void setLengthCounter(LengthCounter lengthCounter) {
+        this.lengthCounter = lengthCounter;
+    }
     
+    @Override
+    public boolean mayTrigger(File activeFile, E event) {
+        if (getCurrentTime() >= nextCheck) {
+            return true;
+        }
+        // without a length counter, the size check is thinned out by the
+        // invocation gate which must be consulted under synchronization
+        return lengthCounter == null || lengthCounter.getLength() >= maxFileSize.getSize();
+    }
+
     public boolean isTriggeringEvent(File activeFile, final E event) {
 
         long time = getCurrentTime();
@@ -121,11 +148,25 @@ public class SizeAndTimeBasedFNATP<E> extends TimeBasedFileNamingAndTriggeringPo
 
         
         // next check for roll-over based on size
-        if (invocationGate.isTooSoon(time)) {
+        long length;
+        if (lengthCounter != null) {
+            length = lengthCounter.getLength();
+            if (length < maxFileSize.getSize()) {
+                sizeExceeded = false;
+                return false;
+            }
+            // if the previous rollover failed, do not retry on every event
+            if (sizeExceeded && invocationGate.isTooSoon(time)) {
+                return false;
+            }
+            sizeExceeded = true;
+        } else if (invocationGate.isTooSoon(time)) {
             return false;
+        } else {
+            length = activeFile.length();
         }
-        
-        if (activeFile.length() >= maxFileSize.getSize()) {
+
+        if (length >= maxFileSize.getSize()) {
         
             elapsedPeriodsFileName = tbrp.fileNamePatternWCS.convertMultipleArguments(dateInCurrentPeriod, currentPeriodsCounter);
             currentPeriodsCounter++;
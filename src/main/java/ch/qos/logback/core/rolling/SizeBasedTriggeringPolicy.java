@@ -30,7 +30,7 @@ import ch.qos.logback.core.util.InvocationGate;
  * @author Ceki G&uuml;lc&uuml;
  * 
  */
-public class SizeBasedTriggeringPolicy<E> extends TriggeringPolicyBase<E> {
+public class SizeBasedTriggeringPolicy<E> extends TriggeringPolicyBase<E> implements RolloverPrecheck<E> {
 
     public static final String SEE_SIZE_FORMAT = "http://logback.qos.ch/codes.html#sbtp_size_format";
     /**
@@ -50,7 +50,27 @@ public class SizeBasedTriggeringPolicy<E> extends TriggeringPolicyBase<E> {
 
     InvocationGate invocationGate = new DefaultInvocationGate();
 
+    LengthCounter lengthCounter;
+
+    /**
+     * Set once the length counter reached the maximum size, cleared when it
+     * falls back below it, i.e. once the file was rolled over.
+     */
+    boolean sizeExceeded;
+
     public boolean isTriggeringEvent(final File activeFile, final E event) {
+        if (lengthCounter != null) {
+            if (lengthCounter.getLength() < maxFileSize.getSize()) {
+                sizeExceeded = false;
+                return false;
+            }
+            // if the previous rollover failed, do not retry on every event
+            if (sizeExceeded && invocationGate.isTooSoon(System.currentTimeMillis())) {
+                return false;
+            }
+            sizeExceeded = true;
+            return true;
+        }
 
         long now = System.currentTimeMillis();
         if (invocationGate.isTooSoon(now))
@@ -59,6 +79,19 @@ public class SizeBasedTriggeringPolicy<E> extends TriggeringPolicyBase<E> {
         return (activeFile.length() >= maxFileSize.getSize());
     }
 
+    /**
+     * When set, the size of the active file is read from the given counter on
+     * every event instead of being looked up on the file system from time to
+     * time.
+     */
+    public void setLengthCounter(LengthCounter lengthCounter) {
+        this.lengthCounter = lengthCounter;
+    }
+
+    public boolean mayTrigger(File activeFile, E event) {
+        return lengthCounter == null || lengthCounter.getLength() >= maxFileSize.getSize();
+    }
+
     public String getMaxFileSize() {
         return maxFileSizeAsString;
     }
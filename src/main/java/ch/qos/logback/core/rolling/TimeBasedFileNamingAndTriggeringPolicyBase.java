@@ -25,7 +25,8 @@ import ch.qos.logback.core.rolling.helper.DateTokenConverter;
 import ch.qos.logback.core.rolling.helper.RollingCalendar;
 import ch.qos.logback.core.spi.ContextAwareBase;
 
-abstract public class TimeBasedFileNamingAndTriggeringPolicyBase<E> extends ContextAwareBase implements TimeBasedFileNamingAndTriggeringPolicy<E> {
+abstract public class TimeBasedFileNamingAndTriggeringPolicyBase<E> extends ContextAwareBase implements TimeBasedFileNamingAndTriggeringPolicy<E>,
+                RolloverPrecheck<E> {
 
     static private String COLLIDING_DATE_FORMAT_URL = CODES_URL + "#rfa_collision_in_dateFormat";
 
@@ -38,7 +39,8 @@ abstract public class TimeBasedFileNamingAndTriggeringPolicyBase<E> extends Cont
     protected long artificialCurrentTime = -1;
     protected Date dateInCurrentPeriod = null;
 
-    protected long nextCheck;
+    // read without synchronization by mayTrigger() in subclasses
+    protected volatile long nextCheck;
     protected boolean started = false;
     protected boolean errorFree = true;
 
@@ -82,6 +84,16 @@ abstract public class TimeBasedFileNamingAndTriggeringPolicyBase<E> extends Cont
         started = false;
     }
 
+    /**
+     * Subclasses may trigger on conditions other than time, which cannot be
+     * ruled out here. This implementation therefore always returns true.
+     * Subclasses triggering only when the current period elapses may override
+     * it with a comparison against {@link #nextCheck}.
+     */
+    public boolean mayTrigger(File activeFile, E event) {
+        return true;
+    }
+
     protected void computeNextCheck() {
         nextCheck = rc.getNextTriggeringDate(dateInCurrentPeriod).getTime();
     }
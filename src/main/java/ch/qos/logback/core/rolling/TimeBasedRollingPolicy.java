@@ -21,6 +21,7 @@ import java.util.Date;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.zip.Deflater;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.rolling.helper.ArchiveRemover;
@@ -41,7 +42,7 @@ import ch.qos.logback.core.util.FileSize;
  * 
  * @author Ceki G&uuml;lc&uuml;
  */
-public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements TriggeringPolicy<E> {
+public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements TriggeringPolicy<E>, RolloverPrecheck<E> {
     static final String FNP_NOT_SET = "The FileNamePattern option must be set before using TimeBasedRollingPolicy. ";
     // WCS: without compression suffix
     FileNamePattern fileNamePatternWCS;
@@ -54,6 +55,10 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
     private int maxHistory = UNBOUND_HISTORY;
     private FileSize totalSizeCap = new FileSize(UNBOUND_TOTAL_SIZE);
 
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private int compressionThreadCount = 1;
+    private FileSize compressionBlockSize = new FileSize(Compressor.DEFAULT_BLOCK_SIZE);
+
     private ArchiveRemover archiveRemover;
 
     TimeBasedFileNamingAndTriggeringPolicy<E> timeBasedFileNamingAndTriggeringPolicy;
@@ -76,6 +81,26 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
 
         compressor = new Compressor(compressionMode);
         compressor.setContext(context);
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            addWarn("Invalid compressionLevel [" + compressionLevel + "], expected a value between " + Deflater.DEFAULT_COMPRESSION + " and "
+                            + Deflater.BEST_COMPRESSION + ". Using the default level.");
+        } else {
+            compressor.setCompressionLevel(compressionLevel);
+        }
+        if (compressionThreadCount < 1) {
+            addWarn("Invalid compressionThreadCount [" + compressionThreadCount + "]. Using a single thread.");
+        } else if (compressionThreadCount > CoreConstants.COMPRESSION_POOL_SIZE) {
+            addWarn("compressionThreadCount [" + compressionThreadCount + "] exceeds the " + CoreConstants.COMPRESSION_POOL_SIZE
+                            + " available processors. Using " + CoreConstants.COMPRESSION_POOL_SIZE + " threads.");
+            compressor.setThreadCount(CoreConstants.COMPRESSION_POOL_SIZE);
+        } else {
+            compressor.setThreadCount(compressionThreadCount);
+        }
+        if (compressionBlockSize.getSize() < 1) {
+            addWarn("Invalid compressionBlockSize [" + compressionBlockSize + "]. Using the default of " + Compressor.DEFAULT_BLOCK_SIZE + " bytes.");
+        } else {
+            compressor.setBlockSize((int) Math.min(Integer.MAX_VALUE, compressionBlockSize.getSize()));
+        }
 
         // wcs : without compression suffix
         fileNamePatternWCS = new FileNamePattern(Compressor.computeFileNameStr_WCS(fileNamePatternStr, compressionMode), this.context);
@@ -219,6 +244,14 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
         return timeBasedFileNamingAndTriggeringPolicy.isTriggeringEvent(activeFile, event);
     }
 
+    @SuppressWarnings("unchecked")
+    public boolean mayTrigger(File activeFile, E event) {
+        if (timeBasedFileNamingAndTriggeringPolicy instanceof RolloverPrecheck) {
+            return ((RolloverPrecheck<E>) timeBasedFileNamingAndTriggeringPolicy).mayTrigger(activeFile, event);
+        }
+        return true;
+    }
+
     /**
      * Get the number of archive files to keep.
      * 
@@ -259,4 +292,48 @@ public class TimeBasedRollingPolicy<E> extends RollingPolicyBase implements Trig
     public void setTotalSizeCap(FileSize totalSizeCap) {
         this.totalSizeCap = totalSizeCap;
     }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * The deflate compression level used for archived files, from 0 (no
+     * compression) to 9 (best compression). Defaults to -1, the deflater's
+     * default level.
+     *
+     * @param compressionLevel
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionThreadCount() {
+        return compressionThreadCount;
+    }
+
+    /**
+     * The number of threads compressing an archived file concurrently, in GZ mode
+     * only. When larger than 1, the file is split into blocks of
+     * <b>compressionBlockSize</b> bytes, each of which is compressed into a member
+     * of a multi-member gzip file. Default is 1.
+     *
+     * @param compressionThreadCount
+     */
+    public void setCompressionThreadCount(int compressionThreadCount) {
+        this.compressionThreadCount = compressionThreadCount;
+    }
+
+    public FileSize getCompressionBlockSize() {
+        return compressionBlockSize;
+    }
+
+    /**
+     * The size of the blocks compressed concurrently. Default is 1MB.
+     *
+     * @param compressionBlockSize
+     */
+    public void setCompressionBlockSize(FileSize compressionBlockSize) {
+        this.compressionBlockSize = compressionBlockSize;
+    }
 }
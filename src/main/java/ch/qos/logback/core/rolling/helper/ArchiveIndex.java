@@ -0,0 +1,74 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.rolling.helper;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The archives of each period along with their size, as last seen by an
+ * {@link TimeBasedArchiveRemover}. Periods are identified by the time at which
+ * they start. This class is not thread-safe.
+ */
+class ArchiveIndex {
+
+    static final class Archive {
+        final File file;
+        final long length;
+        final long lastModified;
+
+        Archive(File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+    }
+
+    static final Archive[] EMPTY = new Archive[0];
+
+    private final Map<Long, Archive[]> periods = new HashMap<Long, Archive[]>();
+
+    /**
+     * @return the archives of the period, or null if the period is not indexed
+     */
+    Archive[] get(long periodStart) {
+        return periods.get(periodStart);
+    }
+
+    /**
+     * Index the given files as the archives of the period, replacing those
+     * previously indexed.
+     */
+    Archive[] put(long periodStart, File[] files) {
+        Archive[] archives = new Archive[files.length];
+        for (int i = 0; i < files.length; i++) {
+            archives[i] = new Archive(files[i]);
+        }
+        periods.put(periodStart, archives);
+        return archives;
+    }
+
+    /**
+     * Replace the archives of the period, for instance after some were deleted.
+     */
+    void set(long periodStart, List<Archive> archives) {
+        periods.put(periodStart, archives.toArray(EMPTY));
+    }
+
+    void remove(long periodStart) {
+        periods.remove(periodStart);
+    }
+}
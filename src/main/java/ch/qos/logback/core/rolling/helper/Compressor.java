@@ -14,20 +14,30 @@
 package ch.qos.logback.core.rolling.helper;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.rolling.RolloverFailure;
 import ch.qos.logback.core.spi.ContextAwareBase;
+import ch.qos.logback.core.spi.LifeCycle;
 import ch.qos.logback.core.status.ErrorStatus;
 import ch.qos.logback.core.status.WarnStatus;
+import ch.qos.logback.core.util.ExecutorServiceUtil;
 import ch.qos.logback.core.util.FileUtil;
 
 /**
@@ -42,10 +52,57 @@ public class Compressor extends ContextAwareBase {
 
     static final int BUFFER_SIZE = 8192;
 
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    int threadCount = 1;
+    int blockSize = DEFAULT_BLOCK_SIZE;
+
     public Compressor(CompressionMode compressionMode) {
         this.compressionMode = compressionMode;
     }
 
+    /**
+     * The deflate compression level, from 0 (no compression) to 9 (best
+     * compression), or -1 for the default level.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * The number of threads deflating blocks concurrently in GZ mode. With the
+     * default value of 1, files are compressed as a single gzip member by the
+     * calling thread. Otherwise, blocks are deflated by an executor service
+     * shared by all compressors of the context, whose size is
+     * {@link CoreConstants#COMPRESSION_POOL_SIZE}.
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * The size of the blocks compressed concurrently when <b>threadCount</b> is
+     * larger than 1. Each block becomes a member of the resulting multi-member
+     * gzip file. Larger blocks compress slightly better at the cost of memory:
+     * up to twice <b>threadCount</b> blocks are held in memory.
+     */
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
     /**
      * @param nameOfFile2Compress
      * @param nameOfCompressedFile
@@ -183,14 +240,20 @@ public class Compressor extends ContextAwareBase {
             return;
         }
 
+        if (threadCount > 1) {
+            parallelGzCompress(file2gz, gzedFile);
+            return;
+        }
+
         addInfo("GZ compressing [" + file2gz + "] as [" + gzedFile + "]");
         createMissingTargetDirsIfNecessary(gzedFile);
 
+        long start = System.currentTimeMillis();
         BufferedInputStream bis = null;
         GZIPOutputStream gzos = null;
         try {
             bis = new BufferedInputStream(new FileInputStream(nameOfFile2gz));
-            gzos = new GZIPOutputStream(new FileOutputStream(nameOfgzedFile));
+            gzos = newGZIPOutputStream(new FileOutputStream(nameOfgzedFile));
             byte[] inbuf = new byte[BUFFER_SIZE];
             int n;
 
@@ -202,6 +265,7 @@ public class Compressor extends ContextAwareBase {
             bis = null;
             gzos.close();
             gzos = null;
+            addInfo("GZ compressed [" + file2gz + "] in " + (System.currentTimeMillis() - start) + " ms");
 
             if (!file2gz.delete()) {
                 addStatus(new WarnStatus("Could not delete [" + nameOfFile2gz + "].", this));
@@ -226,6 +290,165 @@ public class Compressor extends ContextAwareBase {
         }
     }
 
+    private GZIPOutputStream newGZIPOutputStream(OutputStream os) throws IOException {
+        if (compressionLevel == Deflater.DEFAULT_COMPRESSION) {
+            return new GZIPOutputStream(os, BUFFER_SIZE);
+        }
+        return new GZIPOutputStream(os, BUFFER_SIZE) {
+            {
+                def.setLevel(compressionLevel);
+            }
+        };
+    }
+
+    /**
+     * Returns the executor service shared by the compressors of the context,
+     * creating it on first use. Its threads terminate when idle. It is shut
+     * down, and removed from the context, when the context is reset.
+     */
+    private ExecutorService getCompressionExecutorService() {
+        synchronized (context) {
+            ExecutorService executorService = (ExecutorService) context.getObject(CoreConstants.COMPRESSION_EXECUTOR_SERVICE);
+            if (executorService == null) {
+                executorService = ExecutorServiceUtil.newFixedExecutorService(CoreConstants.COMPRESSION_POOL_SIZE);
+                context.putObject(CoreConstants.COMPRESSION_EXECUTOR_SERVICE, executorService);
+                context.register(new ExecutorServiceLifeCycle(executorService));
+            }
+            return executorService;
+        }
+    }
+
+    /**
+     * Shuts the compression executor service down when the context's life cycle
+     * manager stops its components.
+     */
+    static class ExecutorServiceLifeCycle implements LifeCycle {
+
+        private final ExecutorService executorService;
+
+        ExecutorServiceLifeCycle(ExecutorService executorService) {
+            this.executorService = executorService;
+        }
+
+        public void start() {
+        }
+
+        public void stop() {
+            ExecutorServiceUtil.shutdown(executorService);
+        }
+
+        public boolean isStarted() {
+            return !executorService.isShutdown();
+        }
+    }
+
+    /**
+     * Split the file into blocks deflated concurrently, each into a gzip member of
+     * its own. Members are written in order, yielding a standard multi-member gzip
+     * file. At most twice <b>threadCount</b> blocks are in flight at any time.
+     */
+    private void parallelGzCompress(File file2gz, File gzedFile) {
+        addInfo("GZ compressing [" + file2gz + "] as [" + gzedFile + "] with " + threadCount + " threads and blocks of " + blockSize + " bytes");
+        createMissingTargetDirsIfNecessary(gzedFile);
+
+        long start = System.currentTimeMillis();
+        ExecutorService executorService = getCompressionExecutorService();
+        LinkedList<Future<byte[]>> pending = new LinkedList<Future<byte[]>>();
+        InputStream is = null;
+        OutputStream os = null;
+        try {
+            is = new FileInputStream(file2gz);
+            os = new FileOutputStream(gzedFile);
+            int maxPending = 2 * threadCount;
+            byte[] block;
+            while ((block = readBlock(is)) != null) {
+                if (pending.size() == maxPending) {
+                    os.write(pending.removeFirst().get());
+                }
+                pending.add(executorService.submit(new GzBlockCallable(block)));
+            }
+            while (!pending.isEmpty()) {
+                os.write(pending.removeFirst().get());
+            }
+
+            is.close();
+            is = null;
+            os.close();
+            os = null;
+            addInfo("GZ compressed [" + file2gz + "] in " + (System.currentTimeMillis() - start) + " ms");
+
+            if (!file2gz.delete()) {
+                addStatus(new WarnStatus("Could not delete [" + file2gz + "].", this));
+            }
+        } catch (ExecutionException e) {
+            addStatus(new ErrorStatus("Error occurred while compressing [" + file2gz + "] into [" + gzedFile + "].", this, e.getCause()));
+        } catch (InterruptedException e) {
+            addStatus(new ErrorStatus("Interrupted while compressing [" + file2gz + "] into [" + gzedFile + "].", this, e));
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            addStatus(new ErrorStatus("Error occurred while compressing [" + file2gz + "] into [" + gzedFile + "].", this, e));
+        } finally {
+            // the executor service is shared, only drop the blocks of this file
+            for (Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+            if (is != null) {
+                try {
+                    is.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            if (os != null) {
+                try {
+                    os.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+                // do not leave a truncated archive behind, the original file is kept
+                gzedFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Read up to <b>blockSize</b> bytes, returning null at end of stream.
+     */
+    private byte[] readBlock(InputStream is) throws IOException {
+        byte[] buf = new byte[blockSize];
+        int len = 0;
+        int n;
+        while (len < buf.length && (n = is.read(buf, len, buf.length - len)) != -1) {
+            len += n;
+        }
+        if (len == 0) {
+            return null;
+        }
+        if (len < buf.length) {
+            byte[] shorter = new byte[len];
+            System.arraycopy(buf, 0, shorter, 0, len);
+            return shorter;
+        }
+        return buf;
+    }
+
+    class GzBlockCallable implements Callable<byte[]> {
+        final byte[] block;
+
+        GzBlockCallable(byte[] block) {
+            this.block = block;
+        }
+
+        public byte[] call() throws IOException {
+            // compressed log data is typically a tenth of its original size
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.max(BUFFER_SIZE, block.length / 8));
+            GZIPOutputStream gzos = newGZIPOutputStream(baos);
+            gzos.write(block);
+            gzos.close();
+            return baos.toByteArray();
+        }
+    }
+
     static public String computeFileNameStr_WCS(String fileNamePatternStr, CompressionMode compressionMode) {
         int len = fileNamePatternStr.length();
         switch (compressionMode) {
@@ -16,15 +16,18 @@ package ch.qos.logback.core.rolling.helper;
 import static ch.qos.logback.core.CoreConstants.UNBOUND_TOTAL_SIZE;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import ch.qos.logback.core.CoreConstants;
 import ch.qos.logback.core.pattern.Converter;
 import ch.qos.logback.core.pattern.LiteralConverter;
+import ch.qos.logback.core.rolling.helper.ArchiveIndex.Archive;
 import ch.qos.logback.core.spi.ContextAwareBase;
 import ch.qos.logback.core.util.FileSize;
 
@@ -44,13 +47,20 @@ public class TimeBasedArchiveRemover extends ContextAwareBase implements Archive
     final boolean parentClean;
     long lastHeartBeat = UNINITIALIZED;
 
+    /**
+     * The archives found in each period, built as periods are first visited
+     * and then updated as archives are deleted, so that directories are not
+     * listed again at each clean up. Guarded by this remover.
+     */
+    final ArchiveIndex archiveIndex = new ArchiveIndex();
+
     public TimeBasedArchiveRemover(FileNamePattern fileNamePattern, RollingCalendar rc) {
         this.fileNamePattern = fileNamePattern;
         this.rc = rc;
         this.parentClean = computeParentCleaningFlag(fileNamePattern);
     }
 
-    public void clean(Date now) {
+    public synchronized void clean(Date now) {
         long nowInMillis = now.getTime();
         // for a live appender periodsElapsed is usually one
         int periodsElapsed = computeElapsedPeriodsSinceLastClean(nowInMillis);
@@ -80,50 +90,88 @@ public class TimeBasedArchiveRemover extends ContextAwareBase implements Archive
         return file2Delete.exists() && file2Delete.isFile();
     }
 
-    public void cleanPeriod(Date dateOfPeriodToClean) {
-        File[] matchingFileArray = getFilesInPeriod(dateOfPeriodToClean);
+    /**
+     * Archives of the most recent periods may still be written to, renamed or
+     * compressed, their index entries are thus refreshed at each clean up.
+     * Those of older periods are looked up only once.
+     * 
+     * @param dateOfPeriod the start of the period
+     * @param refresh whether to look up the archives even if already indexed
+     */
+    Archive[] getArchivesInPeriod(Date dateOfPeriod, boolean refresh) {
+        long periodStart = dateOfPeriod.getTime();
+        Archive[] archives = refresh ? null : archiveIndex.get(periodStart);
+        if (archives == null) {
+            archives = archiveIndex.put(periodStart, getFilesInPeriod(dateOfPeriod));
+        }
+        return archives;
+    }
 
-        for (File f : matchingFileArray) {
-            addInfo("deleting " + f);
-            f.delete();
+    public synchronized void cleanPeriod(Date dateOfPeriodToClean) {
+        Archive[] archives = getArchivesInPeriod(dateOfPeriodToClean, false);
+
+        List<Archive> remaining = new ArrayList<Archive>();
+        for (Archive archive : archives) {
+            addInfo("deleting " + archive.file);
+            if (!archive.file.delete() && archive.file.exists()) {
+                remaining.add(archive);
+            }
+        }
+        // periods are cleaned once they fall out of history, after which
+        // there is no need to remember them
+        if (remaining.isEmpty()) {
+            archiveIndex.remove(dateOfPeriodToClean.getTime());
+        } else {
+            archiveIndex.set(dateOfPeriodToClean.getTime(), remaining);
         }
 
-        if (parentClean && matchingFileArray.length > 0) {
-            File parentDir = getParentDir(matchingFileArray[0]);
+        if (parentClean && archives.length > 0) {
+            File parentDir = getParentDir(archives[0].file);
             removeFolderIfEmpty(parentDir);
         }
     }
 
-    void capTotalSize(Date now) {
-        int totalSize = 0;
-        int totalRemoved = 0;
+    synchronized void capTotalSize(Date now) {
+        long totalSize = 0;
+        long totalRemoved = 0;
         for (int offset = 0; offset < maxHistory; offset++) {
             Date date = rc.getEndOfNextNthPeriod(now, -offset);
-            File[] matchingFileArray = getFilesInPeriod(date);
-            descendingSortByLastModified(matchingFileArray);
-            for (File f : matchingFileArray) {
-                long size = f.length();
+            Archive[] archives = getArchivesInPeriod(date, offset <= UNTOUCHABLE_ARCHIVE_FILE_COUNT).clone();
+            descendingSortByLastModified(archives);
+            List<Archive> remaining = null;
+            for (int i = 0; i < archives.length; i++) {
+                Archive archive = archives[i];
+                long size = archive.length;
+                boolean deleted = false;
                 if (totalSize + size > totalSizeCap) {
                     if (offset >= UNTOUCHABLE_ARCHIVE_FILE_COUNT) {
-                        addInfo("Deleting [" + f + "]" + " of size " + new FileSize(size));
+                        addInfo("Deleting [" + archive.file + "]" + " of size " + new FileSize(size));
                         totalRemoved += size;
-                        f.delete();
+                        deleted = archive.file.delete();
                     } else {
-                        addWarn("Skipping [" + f + "]" + " of size " + new FileSize(size) + " as it is one of the two newest log achives.");
+                        addWarn("Skipping [" + archive.file + "]" + " of size " + new FileSize(size) + " as it is one of the two newest log achives.");
                     }
                 }
                 totalSize += size;
+                if (deleted && remaining == null) {
+                    remaining = new ArrayList<Archive>(Arrays.asList(archives).subList(0, i));
+                } else if (!deleted && remaining != null) {
+                    remaining.add(archive);
+                }
+            }
+            if (remaining != null) {
+                archiveIndex.set(date.getTime(), remaining);
             }
         }
         addInfo("Removed  " + new FileSize(totalRemoved) + " of files");
     }
 
-    private void descendingSortByLastModified(File[] matchingFileArray) {
-        Arrays.sort(matchingFileArray, new Comparator<File>() {
+    private void descendingSortByLastModified(Archive[] archives) {
+        Arrays.sort(archives, new Comparator<Archive>() {
             @Override
-            public int compare(final File f1, final File f2) {
-                long l1 = f1.lastModified();
-                long l2 = f2.lastModified();
+            public int compare(final Archive f1, final Archive f2) {
+                long l1 = f1.lastModified;
+                long l2 = f2.lastModified;
                 if (l1 == l2)
                     return 0;
                 // descending sort, i.e. newest files first
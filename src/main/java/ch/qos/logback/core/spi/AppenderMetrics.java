@@ -0,0 +1,114 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.spi;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.util.LatencyHistogram;
+
+/**
+ * Runtime statistics of an appender. Instances are created only for appenders
+ * whose <b>metricsEnabled</b> property is set, so that appenders without
+ * metrics pay no more than a null check per event.
+ * 
+ * <p>All durations are expressed in nanoseconds.
+ */
+public class AppenderMetrics {
+
+    private final Appender<?> appender;
+
+    private final LongAdder appendedEvents = new LongAdder();
+    private final LongAdder discardedEvents = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final LatencyHistogram appendTime = new LatencyHistogram();
+    private final LatencyHistogram lockWaitTime = new LatencyHistogram();
+    private final LatencyHistogram writeTime = new LatencyHistogram();
+
+    public AppenderMetrics(Appender<?> appender) {
+        this.appender = appender;
+    }
+
+    public Appender<?> getAppender() {
+        return appender;
+    }
+
+    /**
+     * Record events which passed the filter chain and the time taken to append
+     * them.
+     */
+    public void recordAppend(int eventCount, long nanos) {
+        appendedEvents.add(eventCount);
+        appendTime.record(nanos);
+    }
+
+    /**
+     * Record an event dropped by the appender, for example by an
+     * {@link ch.qos.logback.core.AsyncAppenderBase} whose queue is full.
+     */
+    public void recordDiscard() {
+        discardedEvents.increment();
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWaitTime.record(nanos);
+    }
+
+    /**
+     * Record the time spent encoding events and writing the result to the
+     * underlying stream, excluding the time spent waiting for the lock.
+     */
+    public void recordWrite(long nanos) {
+        writeTime.record(nanos);
+    }
+
+    public LongAdder getAppendedEvents() {
+        return appendedEvents;
+    }
+
+    public LongAdder getDiscardedEvents() {
+        return discardedEvents;
+    }
+
+    public LongAdder getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public LatencyHistogram getAppendTime() {
+        return appendTime;
+    }
+
+    public LatencyHistogram getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    public LatencyHistogram getWriteTime() {
+        return writeTime;
+    }
+
+    public void reset() {
+        appendedEvents.reset();
+        discardedEvents.reset();
+        bytesWritten.reset();
+        appendTime.reset();
+        lockWaitTime.reset();
+        writeTime.reset();
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getName() + "[" + appender.getName() + "]";
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import ch.qos.logback.core.Context;
+import ch.qos.logback.core.CoreConstants;
+
+/**
+ * Keeps track of the {@link AppenderMetrics} of the started appenders of a
+ * context. The registry is kept in the context's object map and is thus
+ * discarded when the context is reset. Appenders unregister from the registry
+ * they registered with, so that listeners are still notified when appenders
+ * are stopped by the reset.
+ */
+public class AppenderMetricsRegistry {
+
+    private final List<AppenderMetrics> metricsList = new CopyOnWriteArrayList<AppenderMetrics>();
+    private final List<AppenderMetricsListener> listenerList = new CopyOnWriteArrayList<AppenderMetricsListener>();
+
+    /**
+     * Returns the registry of the given context, creating it if necessary.
+     */
+    public static AppenderMetricsRegistry getRegistry(Context context) {
+        synchronized (context.getConfigurationLock()) {
+            AppenderMetricsRegistry registry = (AppenderMetricsRegistry) context.getObject(CoreConstants.APPENDER_METRICS_REGISTRY);
+            if (registry == null) {
+                registry = new AppenderMetricsRegistry();
+                context.putObject(CoreConstants.APPENDER_METRICS_REGISTRY, registry);
+            }
+            return registry;
+        }
+    }
+
+    public synchronized void register(AppenderMetrics metrics) {
+        if (metricsList.contains(metrics)) {
+            return;
+        }
+        metricsList.add(metrics);
+        for (AppenderMetricsListener listener : listenerList) {
+            listener.onRegister(metrics);
+        }
+    }
+
+    public synchronized void unregister(AppenderMetrics metrics) {
+        if (!metricsList.remove(metrics)) {
+            return;
+        }
+        for (AppenderMetricsListener listener : listenerList) {
+            listener.onUnregister(metrics);
+        }
+    }
+
+    /**
+     * Add a listener. The listener is immediately notified of already registered
+     * metrics.
+     */
+    public synchronized void addListener(AppenderMetricsListener listener) {
+        listenerList.add(listener);
+        for (AppenderMetrics metrics : metricsList) {
+            listener.onRegister(metrics);
+        }
+    }
+
+    public synchronized void removeListener(AppenderMetricsListener listener) {
+        listenerList.remove(listener);
+    }
+
+    public List<AppenderMetrics> getCopyOfMetricsList() {
+        return new ArrayList<AppenderMetrics>(metricsList);
+    }
+}
@@ -18,40 +18,179 @@ import java.util.Date;
 import java.util.TimeZone;
 
 /**
- * A synchronized implementation of  SimpleDateFormat which uses caching internally.
+ * A thread-safe, caching implementation of SimpleDateFormat.
+ * 
+ * <p>The output for a given second is rendered once with SimpleDateFormat.
+ * Subsequent timestamps falling within the same second are produced by
+ * patching the milliseconds characters into that pre-rendered template. The
+ * cache is an immutable object published through a volatile field, so that
+ * formatting never blocks except when a new second has to be rendered.
+ * 
+ * <p>Patterns without milliseconds render the same string for the whole
+ * second, which is then served for every timestamp within it. Patterns where
+ * the milliseconds cannot be patched in place, e.g. "S" with a variable width,
+ * fall back to caching the last formatted timestamp.
  *
  * @author Ceki G&uuml;c&uuml;
  * @since 0.9.29
  */
 public class CachingDateFormatter {
 
-    long lastTimestamp = -1;
-    String cachedStr = null;
+    static final String ZERO_MILLIS = "000";
+    static final String MAX_MILLIS = "999";
+
     final SimpleDateFormat sdf;
+    volatile CacheEntry cache;
 
     public CachingDateFormatter(String pattern) {
         sdf = new SimpleDateFormat(pattern);
     }
 
     public final String format(long now) {
+        CacheEntry entry = cache;
+        if (entry != null) {
+            if (entry.timestamp == now || entry.isConstantAt(now)) {
+                return entry.formatted;
+            }
+            if (entry.canPatch(now)) {
+                String formatted = entry.patch(now);
+                cache = new CacheEntry(entry.secondStart, entry.template, entry.millisOffset, false, now, formatted);
+                return formatted;
+            }
+        }
+        entry = render(now);
+        cache = entry;
+        return entry.formatted;
+    }
 
-        // SimpleDateFormat is not thread safe.
-
-        // See also the discussion in http://jira.qos.ch/browse/LBCLASSIC-36
-        // DateFormattingThreadedThroughputCalculator and SelectiveDateFormattingRunnable
-        // are also noteworthy
+    /**
+     * Append the formatted timestamp to <code>buf</code>. When the timestamp
+     * falls within the cached second, no intermediate String is created.
+     */
+    public final void format(long now, StringBuilder buf) {
+        CacheEntry entry = cache;
+        if (entry != null) {
+            if (entry.timestamp == now || entry.isConstantAt(now)) {
+                buf.append(entry.formatted);
+                return;
+            }
+            if (entry.canPatch(now)) {
+                entry.appendPatched(now, buf);
+                return;
+            }
+        }
+        buf.append(format(now));
+    }
 
-        // The now == lastTimestamp guard minimizes synchronization
-        synchronized (this) {
-            if (now != lastTimestamp) {
-                lastTimestamp = now;
-                cachedStr = sdf.format(new Date(now));
+    /**
+     * Render the second containing <code>now</code>. SimpleDateFormat is not
+     * thread safe, this is the only place where it is used.
+     */
+    private CacheEntry render(long now) {
+        long secondStart = now - millisOf(now);
+        synchronized (sdf) {
+            String first = sdf.format(new Date(secondStart));
+            String last = sdf.format(new Date(secondStart + 999));
+            if (first.equals(last)) {
+                return new CacheEntry(secondStart, null, -1, true, now, first);
+            }
+            int millisOffset = findMillisOffset(first, last);
+            if (millisOffset < 0) {
+                String formatted = (now == secondStart) ? first : sdf.format(new Date(now));
+                return new CacheEntry(secondStart, null, -1, false, now, formatted);
             }
-            return cachedStr;
+            CacheEntry template = new CacheEntry(secondStart, first.toCharArray(), millisOffset, false, secondStart, first);
+            String formatted = (now == secondStart) ? first : template.patch(now);
+            return new CacheEntry(secondStart, template.template, millisOffset, false, now, formatted);
         }
     }
 
+    /**
+     * Locate the three milliseconds characters by comparing the renderings of
+     * the first and the last millisecond of the same second.
+     *
+     * @return the offset of the milliseconds, -1 if they cannot be patched
+     */
+    static int findMillisOffset(String first, String last) {
+        if (first.length() != last.length()) {
+            return -1;
+        }
+        int len = first.length();
+        int i = 0;
+        while (i < len && first.charAt(i) == last.charAt(i)) {
+            i++;
+        }
+        if (i + ZERO_MILLIS.length() > len) {
+            return -1;
+        }
+        if (!first.startsWith(ZERO_MILLIS, i) || !last.startsWith(MAX_MILLIS, i)) {
+            return -1;
+        }
+        int end = i + ZERO_MILLIS.length();
+        if (!first.substring(end).equals(last.substring(end))) {
+            return -1;
+        }
+        return i;
+    }
+
+    static int millisOf(long now) {
+        int millis = (int) (now % 1000);
+        return millis < 0 ? millis + 1000 : millis;
+    }
+
     public void setTimeZone(TimeZone tz) {
-        sdf.setTimeZone(tz);
+        synchronized (sdf) {
+            sdf.setTimeZone(tz);
+            cache = null;
+        }
+    }
+
+    /**
+     * An immutable snapshot of the cache.
+     */
+    static final class CacheEntry {
+        final long secondStart;
+        final char[] template;
+        final int millisOffset;
+        // true if 'formatted' is valid for the whole second
+        final boolean constant;
+        final long timestamp;
+        final String formatted;
+
+        CacheEntry(long secondStart, char[] template, int millisOffset, boolean constant, long timestamp, String formatted) {
+            this.secondStart = secondStart;
+            this.template = template;
+            this.millisOffset = millisOffset;
+            this.constant = constant;
+            this.timestamp = timestamp;
+            this.formatted = formatted;
+        }
+
+        boolean isConstantAt(long now) {
+            return constant && now >= secondStart && now - secondStart < 1000;
+        }
+
+        boolean canPatch(long now) {
+            return template != null && now >= secondStart && now - secondStart < 1000;
+        }
+
+        String patch(long now) {
+            char[] chars = template.clone();
+            int millis = (int) (now - secondStart);
+            chars[millisOffset] = (char) ('0' + millis / 100);
+            chars[millisOffset + 1] = (char) ('0' + (millis / 10) % 10);
+            chars[millisOffset + 2] = (char) ('0' + millis % 10);
+            return new String(chars);
+        }
+
+        void appendPatched(long now, StringBuilder buf) {
+            int millis = (int) (now - secondStart);
+            buf.append(template, 0, millisOffset);
+            buf.append((char) ('0' + millis / 100));
+            buf.append((char) ('0' + (millis / 10) % 10));
+            buf.append((char) ('0' + millis % 10));
+            int rest = millisOffset + ZERO_MILLIS.length();
+            buf.append(template, rest, template.length - rest);
+        }
     }
 }
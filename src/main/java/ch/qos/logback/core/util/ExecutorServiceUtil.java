@@ -15,6 +15,7 @@ package ch.qos.logback.core.util;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.SynchronousQueue;
@@ -62,6 +63,19 @@ public class ExecutorServiceUtil {
                         THREAD_FACTORY);
     }
 
+    /**
+     * Creates an executor service with at most <code>nThreads</code> threads,
+     * suitable for CPU bound work. Threads idle for a minute terminate, so that
+     * an executor service which is no longer used holds no thread.
+     * @param nThreads the maximum number of threads
+     * @return executor service
+     */
+    static public ExecutorService newFixedExecutorService(int nThreads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads, nThreads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), THREAD_FACTORY);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Shuts down an executor service.
      * <p>
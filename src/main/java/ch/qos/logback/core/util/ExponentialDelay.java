@@ -0,0 +1,36 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+/**
+ * A {@link DelayStrategy} which doubles the delay after each attempt, up to a
+ * maximum.
+ */
+public class ExponentialDelay implements DelayStrategy {
+
+    private final long maxDelay;
+    private long nextDelay;
+
+    public ExponentialDelay(long initialDelay, long maxDelay) {
+        this.nextDelay = initialDelay;
+        this.maxDelay = maxDelay;
+    }
+
+    public long nextDelay() {
+        long delay = nextDelay;
+        nextDelay = Math.min(maxDelay, Math.max(1, nextDelay * 2));
+        return delay;
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An {@link OutputStream} collecting bytes in a direct {@link ByteBuffer}
+ * which is written to a {@link FileChannel} when full or flushed. Since the
+ * buffer lives outside the heap, the channel hands it to the kernel without
+ * the intermediate copy made for heap buffers.
+ * 
+ * <p>Writes which do not fit in the buffer are gathered with the buffered
+ * bytes into a single {@link FileChannel#write(ByteBuffer[])} call.
+ * 
+ * <p>This class is not thread-safe.
+ */
+public class FileChannelOutputStream extends OutputStream {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    public FileChannelOutputStream(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            writeBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len <= buffer.remaining()) {
+            buffer.put(b, off, len);
+            return;
+        }
+        if (len < buffer.capacity()) {
+            writeBuffer();
+            buffer.put(b, off, len);
+            return;
+        }
+        // too large to be buffered, write it along with the buffered bytes
+        buffer.flip();
+        ByteBuffer[] srcs = new ByteBuffer[] { buffer, ByteBuffer.wrap(b, off, len) };
+        try {
+            while (srcs[1].hasRemaining()) {
+                channel.write(srcs);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (buffer.position() > 0) {
+            writeBuffer();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, typically expressed in nanoseconds, with
+ * logarithmic buckets: bucket <em>i</em> holds values in the range
+ * [2<sup>i-1</sup>, 2<sup>i</sup>). Recording a value is a single atomic
+ * increment on a bucket owned by the current thread's stripe. Percentiles are
+ * therefore approximated to the upper bound of their bucket, i.e. within a
+ * factor of two.
+ */
+public class LatencyHistogram {
+
+    static final int BUCKET_COUNT = 64;
+
+    static final int MAX_STRIPES = 64;
+
+    private final AtomicLongArray buckets;
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+    private final int mask;
+
+    public LatencyHistogram() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LatencyHistogram(int concurrencyLevel) {
+        int stripes = stripeCountFor(concurrencyLevel);
+        this.mask = stripes - 1;
+        // each stripe spans BUCKET_COUNT longs, well over a cache line, so that
+        // no padding is required between stripes
+        this.buckets = new AtomicLongArray(stripes * BUCKET_COUNT);
+    }
+
+    /**
+     * Returns the smallest power of two at least equal to twice
+     * <code>concurrencyLevel</code>, bounded by {@link #MAX_STRIPES}.
+     */
+    static int stripeCountFor(int concurrencyLevel) {
+        int stripes = 1;
+        while (stripes < 2 * concurrencyLevel && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    static int bucketFor(long value) {
+        if (value <= 0) {
+            return 0;
+        }
+        return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * Record a value. Negative values, which may result from a non monotonic
+     * clock, are recorded as zero.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        // thread ids are handed out sequentially which makes them spread well
+        // over the stripes
+        int stripe = (int) Thread.currentThread().getId() & mask;
+        buckets.getAndIncrement(stripe * BUCKET_COUNT + bucketFor(value));
+        total.add(value);
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    private long[] collect() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < buckets.length(); i++) {
+            counts[i % BUCKET_COUNT] += buckets.get(i);
+        }
+        return counts;
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (long c : collect()) {
+            count += c;
+        }
+        return count;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public long getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : getTotal() / count;
+    }
+
+    /**
+     * Returns an upper bound of the value below which the given percentage of
+     * recorded values fall.
+     * 
+     * @param percentile a value between 0 and 100
+     */
+    public long getPercentile(double percentile) {
+        long[] counts = collect();
+        long count = 0;
+        for (long c : counts) {
+            count += c;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * Math.min(100.0, Math.max(0.0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                long upperBound = i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.min(upperBound, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        total.reset();
+        max.set(0);
+    }
+}
@@ -0,0 +1,268 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free {@link BlockingQueue} backed by a preallocated ring of
+ * slots. Each slot carries a sequence number which tells producers and
+ * consumers whether the slot is free or holds a published element, so that
+ * producers only contend on a single compare-and-set of the tail counter and
+ * never on a lock.
+ * 
+ * <p>The queue is designed for many producers and a single consumer, as is the
+ * case for the worker thread of {@link ch.qos.logback.core.AsyncAppenderBase},
+ * but remains correct with several consumers.
+ * 
+ * <p>Blocking operations wait according to the configured {@link WaitStrategy}.
+ * The iterator returned by {@link #iterator()} works on a snapshot and does not
+ * support removal.
+ *
+ * @param <E>
+ */
+public class RingBufferBlockingQueue<E> extends AbstractQueue<E> implements BlockingQueue<E> {
+
+    private final int capacity;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final WaitStrategy waitStrategy;
+
+    public RingBufferBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.PARK);
+    }
+
+    public RingBufferBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, was [" + capacity + "]");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy");
+        }
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+        this.sequences = new AtomicLongArray(capacity);
+        this.slots = new AtomicReferenceArray<E>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    private int indexOf(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long pos = tail.get();
+        for (;;) {
+            int index = indexOf(pos);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slots.lazySet(index, e);
+                    // publish the element to the consumer
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // the slot still holds an element from the previous lap
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    public E poll() {
+        long pos = head.get();
+        for (;;) {
+            int index = indexOf(pos);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E e = slots.get(index);
+                    slots.lazySet(index, null);
+                    // hand the slot back to producers for the next lap
+                    sequences.set(index, pos + capacity);
+                    return e;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    public E peek() {
+        long pos = head.get();
+        int index = indexOf(pos);
+        if (sequences.get(index) == pos + 1) {
+            return slots.get(index);
+        }
+        return null;
+    }
+
+    public void put(E e) throws InterruptedException {
+        int attempt = 0;
+        while (!offer(e)) {
+            checkInterrupted();
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        while (!offer(e)) {
+            checkInterrupted();
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            waitStrategy.idle(attempt++);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        int attempt = 0;
+        for (;;) {
+            E e = poll();
+            if (e != null) {
+                return e;
+            }
+            checkInterrupted();
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int attempt = 0;
+        for (;;) {
+            E e = poll();
+            if (e != null) {
+                return e;
+            }
+            checkInterrupted();
+            if (deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            waitStrategy.idle(attempt++);
+        }
+    }
+
+    private void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    public int size() {
+        // read head first so that the difference can only be overestimated
+        long h = head.get();
+        long t = tail.get();
+        long size = t - h;
+        if (size < 0) {
+            return 0;
+        }
+        return size > capacity ? capacity : (int) size;
+    }
+
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == null) {
+            throw new NullPointerException();
+        }
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int n = 0;
+        while (n < maxElements) {
+            E e = poll();
+            if (e == null) {
+                break;
+            }
+            c.add(e);
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements present at the time
+     * of the call. The iterator does not support {@link Iterator#remove()}.
+     */
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<E>();
+        long h = head.get();
+        long t = tail.get();
+        for (long pos = h; pos < t; pos++) {
+            int index = indexOf(pos);
+            if (sequences.get(index) != pos + 1) {
+                break;
+            }
+            E e = slots.get(index);
+            if (e == null) {
+                break;
+            }
+            snapshot.add(e);
+        }
+        final Iterator<E> delegate = snapshot.iterator();
+        return new Iterator<E>() {
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            public E next() {
+                return delegate.next();
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+}
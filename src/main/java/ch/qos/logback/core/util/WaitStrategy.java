@@ -0,0 +1,71 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The strategy used by {@link RingBufferBlockingQueue} when a producer finds
+ * the buffer full or the consumer finds it empty.
+ * 
+ * <p>{@link #SPIN} keeps the CPU busy and has the lowest handoff latency,
+ * {@link #YIELD} gives other threads a chance to run between attempts and
+ * {@link #PARK} parks the waiting thread for a period which doubles with each
+ * attempt, up to a few milliseconds, which is the most CPU-friendly choice.
+ * {@link #SPIN} should only be used when there are more cores than busy
+ * threads.
+ */
+public enum WaitStrategy {
+
+    SPIN {
+        @Override
+        void idle(int attempt) {
+            // busy spin
+        }
+    },
+
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            Thread.yield();
+        }
+    },
+
+    PARK {
+        @Override
+        void idle(int attempt) {
+            if (attempt < YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                // back off so that an idle consumer does not wake up
+                // thousands of times per second
+                int shift = Math.min(attempt - YIELD_TRIES, MAX_PARK_SHIFT);
+                LockSupport.parkNanos(Math.min(PARK_NANOS << shift, MAX_PARK_NANOS));
+            }
+        }
+    };
+
+    // attempts during which PARK only yields, before it starts parking
+    static final int YIELD_TRIES = 100;
+    static final long PARK_NANOS = 100 * 1000L;
+    static final long MAX_PARK_NANOS = 10 * 1000 * 1000L;
+    static final int MAX_PARK_SHIFT = 10;
+
+    /**
+     * Wait a little before the caller re-attempts its operation.
+     * 
+     * @param attempt number of unsuccessful attempts so far
+     */
+    abstract void idle(int attempt);
+}
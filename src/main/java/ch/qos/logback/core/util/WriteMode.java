@@ -0,0 +1,42 @@
+/**
+ * Logback: the reliable, generic, fast and flexible logging framework.
+ * Copyright (C) 1999-2015, QOS.ch. All rights reserved.
+ *
+ * This program and the accompanying materials are dual-licensed under
+ * either the terms of the Eclipse Public License v1.0 as published by
+ * the Eclipse Foundation
+ *
+ *   or (per the licensee's choosing)
+ *
+ * under the terms of the GNU Lesser General Public License version 2.1
+ * as published by the Free Software Foundation.
+ */
+package ch.qos.logback.core.util;
+
+/**
+ * How an {@link ch.qos.logback.core.OutputStreamAppender} serializes the
+ * writes of concurrent threads.
+ */
+public enum WriteMode {
+
+    /**
+     * Events are encoded and written while holding a fair lock. Each hand-off
+     * of the lock to a waiting thread entails a context switch.
+     */
+    FAIR_LOCK,
+
+    /**
+     * Events are encoded and written while holding a non-fair lock, letting a
+     * running thread barge ahead of waiting ones.
+     */
+    NON_FAIR_LOCK,
+
+    /**
+     * Events are encoded outside the lock, each thread into its own byte array.
+     * The thread acquiring the lock writes the arrays queued by all threads in
+     * as few <code>write()</code> calls as possible, followed by a single
+     * flush. Requires a {@link ch.qos.logback.core.encoder.LayoutWrappingEncoder}
+     * whose layout is thread-safe.
+     */
+    COMBINING;
+}